@@ -0,0 +1,72 @@
+package ru.practicum.benchmarks;
+
+import ru.practicum.category.model.Category;
+import ru.practicum.compilation.model.Compilation;
+import ru.practicum.dto.ViewStats;
+import ru.practicum.events.model.Event;
+import ru.practicum.events.model.EventState;
+import ru.practicum.events.model.Location;
+import ru.practicum.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class Fixtures {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    public static Event event(long id) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle("Событие " + id);
+        event.setAnnotation("Краткое описание события " + id + ", достаточно длинное для реальной выдачи");
+        event.setDescription("Полное описание события " + id + ". ".repeat(40));
+        event.setEventDate(NOW.plusDays(id % 30));
+        event.setPaid(id % 2 == 0);
+        event.setRequestModeration(true);
+        event.setParticipantLimit(100);
+        event.setCategory(new Category(id % 10, "Категория " + id % 10));
+        event.setLocation(new Location(id, 55.75f, 37.62f));
+        event.setInitiator(new User(id % 100, "Пользователь " + id % 100, "user" + id % 100 + "@mail.ru"));
+        event.setState(EventState.PUBLISHED);
+        event.setCreatedOn(NOW.minusDays(1));
+        event.setPublishedOn(NOW);
+        event.setViews(id * 3);
+        event.setConfirmedRequests(id % 100);
+        return event;
+    }
+
+    public static Compilation compilation(long id, int events) {
+        Set<Event> items = new HashSet<>();
+        for (long i = 1; i <= events; i++) {
+            items.add(event(i));
+        }
+        Compilation compilation = new Compilation();
+        compilation.setId(id);
+        compilation.setTitle("Подборка " + id);
+        compilation.setPinned(true);
+        compilation.setEvents(items);
+        return compilation;
+    }
+
+    public static List<Long> eventIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    public static List<ViewStats> viewStats(int count) {
+        List<ViewStats> stats = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            stats.add(new ViewStats("main-service", "/events/" + i, i * 7));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.benchmarks.Fixtures;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsJsonBenchmark {
+    private static final TypeReference<List<ViewStats>> VIEW_STATS = new TypeReference<>() {
+    };
+
+    @Param({"10", "1000"})
+    public int stats;
+
+    private ObjectMapper mapper;
+    private EndpointHitDto hit;
+    private String hitJson;
+    private List<ViewStats> viewStats;
+    private String viewStatsJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        hit = EndpointHitDto.builder()
+                .app("main-service")
+                .uri("/events/42")
+                .ip("192.168.0.1")
+                .timestamp(LocalDateTime.of(2026, 1, 1, 12, 0))
+                .build();
+        hitJson = mapper.writeValueAsString(hit);
+        viewStats = Fixtures.viewStats(stats);
+        viewStatsJson = mapper.writeValueAsString(viewStats);
+    }
+
+    @Benchmark
+    public String writeHit() throws JsonProcessingException {
+        return mapper.writeValueAsString(hit);
+    }
+
+    @Benchmark
+    public EndpointHitDto readHit() throws JsonProcessingException {
+        return mapper.readValue(hitJson, EndpointHitDto.class);
+    }
+
+    @Benchmark
+    public String writeViewStats() throws JsonProcessingException {
+        return mapper.writeValueAsString(viewStats);
+    }
+
+    @Benchmark
+    public List<ViewStats> readViewStats() throws JsonProcessingException {
+        return mapper.readValue(viewStatsJson, VIEW_STATS);
+    }
+}
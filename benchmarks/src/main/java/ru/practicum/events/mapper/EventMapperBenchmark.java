@@ -0,0 +1,43 @@
+package ru.practicum.events.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.benchmarks.Fixtures;
+import ru.practicum.events.dto.EventDto;
+import ru.practicum.events.dto.EventShortDto;
+import ru.practicum.events.model.Event;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMapperBenchmark {
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        event = Fixtures.event(42);
+    }
+
+    @Benchmark
+    public EventDto mapToDto() {
+        return EventMapper.mapToDto(event, event.getConfirmedRequests(), event.getViews());
+    }
+
+    @Benchmark
+    public EventShortDto mapToShortDto() {
+        return EventMapper.mapToShortDto(event, event.getConfirmedRequests(), event.getViews());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.events.service;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.events.dto.EntityParam;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventQueryBenchmark {
+    private EntityParam minimal;
+    private EntityParam full;
+
+    @Setup
+    public void setUp() {
+        minimal = EntityParam.builder()
+                .from(0)
+                .size(10)
+                .build();
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        full = EntityParam.builder()
+                .text("концерт")
+                .categories(List.of(1L, 2L, 3L))
+                .paid(true)
+                .rangeStart(start)
+                .rangeEnd(start.plusMonths(1))
+                .onlyAvailable(true)
+                .lat(55.75)
+                .lon(37.62)
+                .radius(10.0)
+                .from(0)
+                .size(10)
+                .build();
+    }
+
+    @Benchmark
+    public BooleanExpression minimalQuery() {
+        return EventServiceImpl.prepareAndBuildQuery(minimal);
+    }
+
+    @Benchmark
+    public BooleanExpression fullQuery() {
+        return EventServiceImpl.prepareAndBuildQuery(full);
+    }
+}
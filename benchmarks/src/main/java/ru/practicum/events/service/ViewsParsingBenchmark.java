@@ -0,0 +1,44 @@
+package ru.practicum.events.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.benchmarks.Fixtures;
+import ru.practicum.dto.ViewStats;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewsParsingBenchmark {
+    @Param({"10", "1000"})
+    public int events;
+
+    private List<Long> eventIds;
+    private List<ViewStats> stats;
+
+    @Setup
+    public void setUp() {
+        eventIds = Fixtures.eventIds(events);
+        stats = Fixtures.viewStats(events);
+    }
+
+    @Benchmark
+    public Map<Long, Long> toViews() {
+        return EventViewsCache.toViews(eventIds, stats);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+public record LoadConfig(Path mainServiceJar,
+                         Path statServerJar,
+                         StatsMode statsMode,
+                         ThreadsMode threadsMode,
+                         DatabaseMode databaseMode,
+                         String postgresImage,
+                         long users,
+                         long categories,
+                         long locations,
+                         long events,
+                         long requests,
+                         long hits,
+                         long compilations,
+                         int eventsPerCompilation,
+                         long seedChunk,
+                         int concurrency,
+                         Duration warmup,
+                         Duration duration,
+                         List<String> scenarios,
+                         boolean textIndexes) {
+
+    public static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Path.of(property("load.main-service-jar", "main-service/target/main-service-0.0.1-SNAPSHOT.jar")),
+                Path.of(property("load.stat-server-jar", "stat/stat-server/target/stat-server-0.0.1-SNAPSHOT.jar")),
+                StatsMode.valueOf(property("load.stats", "REAL").toUpperCase()),
+                ThreadsMode.valueOf(property("load.threads", "PLATFORM").toUpperCase()),
+                DatabaseMode.valueOf(property("load.database", "CONTAINER").toUpperCase()),
+                property("load.postgres-image", "postgres:16.1"),
+                Long.parseLong(property("load.users", "100000")),
+                Long.parseLong(property("load.categories", "50")),
+                Long.parseLong(property("load.locations", "100000")),
+                Long.parseLong(property("load.events", "1000000")),
+                Long.parseLong(property("load.requests", "10000000")),
+                Long.parseLong(property("load.hits", "100000000")),
+                Long.parseLong(property("load.compilations", "1000")),
+                Integer.parseInt(property("load.events-per-compilation", "10")),
+                Long.parseLong(property("load.seed-chunk", "1000000")),
+                Integer.parseInt(property("load.concurrency", "64")),
+                Duration.parse(property("load.warmup", "PT30S")),
+                Duration.parse(property("load.duration", "PT2M")),
+                Arrays.stream(property("load.scenarios", "").split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .toList(),
+                Boolean.parseBoolean(property("load.text-indexes", "true")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+
+    public enum StatsMode {
+        REAL,
+        STUB
+    }
+
+    public enum DatabaseMode {
+        CONTAINER,
+        EMBEDDED
+    }
+
+    public enum ThreadsMode {
+        PLATFORM,
+        VIRTUAL,
+        BOTH;
+
+        public List<Boolean> virtualThreads() {
+            return switch (this) {
+                case PLATFORM -> List.of(false);
+                case VIRTUAL -> List.of(true);
+                case BOTH -> List.of(false, true);
+            };
+        }
+    }
+}
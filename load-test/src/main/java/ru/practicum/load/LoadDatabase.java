@@ -0,0 +1,112 @@
+package ru.practicum.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public interface LoadDatabase extends AutoCloseable {
+    void start() throws IOException, SQLException;
+
+    String jdbcUrl();
+
+    String username();
+
+    String password();
+
+    @Override
+    void close() throws IOException;
+
+    static LoadDatabase create(LoadConfig config, String name) {
+        return config.databaseMode() == LoadConfig.DatabaseMode.EMBEDDED
+                ? new Embedded(name)
+                : new Container(config.postgresImage(), name);
+    }
+
+    class Container implements LoadDatabase {
+        private final PostgreSQLContainer<?> container;
+
+        Container(String image, String name) {
+            container = new PostgreSQLContainer<>(image)
+                    .withDatabaseName(name)
+                    .withUsername(name)
+                    .withPassword(name)
+                    .withCommand("postgres", "-c", "max_connections=300", "-c", "shared_buffers=512MB",
+                            "-c", "synchronous_commit=off");
+        }
+
+        @Override
+        public void start() {
+            container.start();
+        }
+
+        @Override
+        public String jdbcUrl() {
+            return container.getJdbcUrl();
+        }
+
+        @Override
+        public String username() {
+            return container.getUsername();
+        }
+
+        @Override
+        public String password() {
+            return container.getPassword();
+        }
+
+        @Override
+        public void close() {
+            container.close();
+        }
+    }
+
+    class Embedded implements LoadDatabase {
+        private static final String USER = "postgres";
+
+        private final String name;
+        private EmbeddedPostgres postgres;
+
+        Embedded(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void start() throws IOException, SQLException {
+            postgres = EmbeddedPostgres.builder()
+                    .setServerConfig("max_connections", "300")
+                    .setServerConfig("shared_buffers", "512MB")
+                    .setServerConfig("synchronous_commit", "off")
+                    .start();
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE DATABASE \"" + name + "\"");
+            }
+        }
+
+        @Override
+        public String jdbcUrl() {
+            return "jdbc:postgresql://localhost:" + postgres.getPort() + "/" + name;
+        }
+
+        @Override
+        public String username() {
+            return USER;
+        }
+
+        @Override
+        public String password() {
+            return USER;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+}
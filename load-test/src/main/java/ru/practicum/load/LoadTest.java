@@ -0,0 +1,180 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class LoadTest {
+    private static final long SKETCH_POLL_MILLIS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        log.info("Параметры нагрузки: {}", config);
+
+        try (LoadDatabase mainDb = LoadDatabase.create(config, "ewm-db");
+             LoadDatabase statsDb = LoadDatabase.create(config, "stat-db")) {
+            mainDb.start();
+            String statsUrl;
+            StatServerStub stub = null;
+            ServiceProcess statServer = null;
+            if (config.statsMode() == LoadConfig.StatsMode.STUB) {
+                stub = new StatServerStub(freePort());
+                stub.start();
+                statsUrl = stub.baseUrl();
+            } else {
+                statsDb.start();
+                statServer = new ServiceProcess("stat-server", config.statServerJar(), freePort(),
+                        datasource(statsDb, withParameter(statsDb.jdbcUrl(), "reWriteBatchedInserts=true")));
+                // первый запуск создает схему и партиции, второй после загрузки строит агрегаты по загруженным просмотрам
+                statServer.start();
+                statServer.stop();
+                new Seeder(config).seedStats(statsDb.jdbcUrl(), statsDb.username(), statsDb.password());
+                statServer.start(virtualThreads(config.threadsMode() == LoadConfig.ThreadsMode.VIRTUAL));
+                awaitSketches(statsDb);
+                statsUrl = statServer.baseUrl();
+            }
+
+            List<String> mainArguments = new ArrayList<>(datasource(mainDb, mainDb.jdbcUrl()));
+            mainArguments.add("--stats-server.url=" + statsUrl);
+            try (ServiceProcess mainService = new ServiceProcess("main-service", config.mainServiceJar(), freePort(),
+                    mainArguments)) {
+                mainService.start();
+                new Seeder(config).seedMain(mainDb.jdbcUrl(), mainDb.username(), mainDb.password());
+                mainService.stop();
+
+                Map<String, Double> throughput = new LinkedHashMap<>();
+                for (boolean virtual : config.threadsMode().virtualThreads()) {
+                    String mode = virtual ? "virtual" : "platform";
+                    mainService.start(virtualThreads(virtual));
+                    if (!config.textIndexes()) {
+                        dropTextIndexes(mainDb);
+                    }
+                    Map<String, Workload.Result> results = new Workload(config, mainService.baseUrl()).run();
+                    throughput.put(mode, report(config, mode, results));
+                    mainService.stop();
+                }
+                if (throughput.size() > 1) {
+                    log.info("Пропускная способность при насыщении: {}", throughput.entrySet().stream()
+                            .map(entry -> String.format("%s %.1f rps", entry.getKey(), entry.getValue()))
+                            .collect(Collectors.joining(", ")));
+                }
+            } finally {
+                if (statServer != null) {
+                    statServer.close();
+                }
+                if (stub != null) {
+                    stub.close();
+                }
+            }
+        }
+    }
+
+    private static String virtualThreads(boolean enabled) {
+        return "--spring.threads.virtual.enabled=" + enabled;
+    }
+
+    private static void awaitSketches(LoadDatabase statsDb) throws SQLException, InterruptedException {
+        try (Connection connection = DriverManager.getConnection(statsDb.jdbcUrl(), statsDb.username(),
+                statsDb.password());
+             Statement statement = connection.createStatement()) {
+            while (true) {
+                try (ResultSet rs = statement.executeQuery("SELECT completed FROM statistic_backfill WHERE name = 'hll'")) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        break;
+                    }
+                }
+                Thread.sleep(SKETCH_POLL_MILLIS);
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM statistic_hll")) {
+                rs.next();
+                log.info("Оценки HyperLogLog построены: {}", rs.getLong(1));
+            }
+        }
+    }
+
+    // schema.sql создает индексы при каждом запуске, поэтому удалять их нужно уже после старта сервиса:
+    // так замеряется поиск по тексту в том виде, в каком он работал до триграммных индексов
+    private static void dropTextIndexes(LoadDatabase mainDb) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(mainDb.jdbcUrl(), mainDb.username(),
+                mainDb.password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX IF EXISTS idx_events_annotation_lower_trgm");
+            statement.execute("DROP INDEX IF EXISTS idx_events_description_lower_trgm");
+        }
+        log.info("Триграммные индексы по тексту событий удалены");
+    }
+
+    private static String withParameter(String url, String parameter) {
+        return url + (url.contains("?") ? "&" : "?") + parameter;
+    }
+
+    private static List<String> datasource(LoadDatabase db, String url) {
+        return List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + db.username(),
+                "--spring.datasource.password=" + db.password(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+    }
+
+    private static double report(LoadConfig config, String mode, Map<String, Workload.Result> results) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder(String.format("%nпотоки: %s", mode));
+        report.append(String.format("%n%-28s %10s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n",
+                "сценарий", "запросов", "rps", "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "max мс", "4xx", "5xx", "io"));
+        Histogram total = null;
+        for (Map.Entry<String, Workload.Result> entry : results.entrySet()) {
+            Workload.Result result = entry.getValue();
+            Histogram histogram = result.histogram();
+            if (total == null) {
+                total = histogram.copy();
+            } else {
+                total.add(histogram);
+            }
+            report.append(line(entry.getKey(), histogram, seconds, result.rejected(), result.errors(), result.failed()));
+        }
+        if (total != null) {
+            report.append(line("всего", total, seconds,
+                    results.values().stream().mapToLong(Workload.Result::rejected).sum(),
+                    results.values().stream().mapToLong(Workload.Result::errors).sum(),
+                    results.values().stream().mapToLong(Workload.Result::failed).sum()));
+        }
+        log.info(report.toString());
+        return total != null ? total.getTotalCount() / seconds : 0;
+    }
+
+    private static String line(String name, Histogram histogram, double seconds, long rejected, long errors,
+                               long failed) {
+        return String.format("%-28s %10d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()), rejected, errors, failed);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.load;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+public record Scenario(String name, int weight, BiFunction<String, ThreadLocalRandom, HttpRequest> request) {
+}
@@ -0,0 +1,109 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Slf4j
+public class Seeder {
+    private static final String USERS = "INSERT INTO users (name, email) "
+            + "SELECT 'Пользователь ' || g, 'user' || g || '@load.test' FROM generate_series(?, ?) AS g";
+    private static final String CATEGORIES = "INSERT INTO categories (category_name) "
+            + "SELECT 'Категория ' || g FROM generate_series(?, ?) AS g";
+    private static final String LOCATIONS = "INSERT INTO locations (lat, lon) "
+            + "SELECT 40 + (g % 1000) * 0.02, 20 + (g / 1000) * 0.02 FROM generate_series(?, ?) AS g";
+    private static final String EVENTS = "INSERT INTO events (title, annotation, description, category_id, event_date,"
+            + " location_id, paid, participant_limit, request_moderation, state, initiator_id, published_at, created_at) "
+            + "SELECT 'Событие ' || g,"
+            + " 'Краткое описание события номер ' || g || ', концерт, выставка или лекция',"
+            + " repeat('Подробное описание события номер ' || g || '. ', 10),"
+            + " 1 + g % ?, now() + (g % 365 - 30) * interval '1 day', 1 + g % ?, g % 2 = 0, (g % 5) * 50,"
+            + " g % 3 <> 0, CASE WHEN g % 10 = 0 THEN 'PENDING' ELSE 'PUBLISHED' END, 1 + g % ?,"
+            + " now() - interval '1 day', now() - interval '2 day' "
+            + "FROM generate_series(?, ?) AS g";
+    private static final String REQUESTS = "INSERT INTO requests (event_id, requester_id, created_at, status) "
+            + "SELECT 1 + g % ?, 1 + (g / ?) % ?, now() - (g % 86400) * interval '1 second',"
+            + " CASE g % 4 WHEN 0 THEN 'PENDING' WHEN 1 THEN 'REJECTED' ELSE 'CONFIRMED' END "
+            + "FROM generate_series(?, ?) AS g";
+    private static final String CONFIRMED = "UPDATE events AS e SET confirmed_requests = c.cnt "
+            + "FROM (SELECT event_id, COUNT(*) AS cnt FROM requests WHERE status = 'CONFIRMED' GROUP BY event_id) AS c "
+            + "WHERE e.id = c.event_id";
+    private static final String COMPILATIONS = "INSERT INTO compilations (pinned, title) "
+            + "SELECT g % 5 = 0, 'Подборка ' || g FROM generate_series(?, ?) AS g";
+    private static final String COMPILATION_EVENTS = "INSERT INTO compilations_events (compilation_id, event_id) "
+            + "SELECT c, 1 + (c * 7919 + i * 104729) % ? FROM generate_series(?, ?) AS c, generate_series(1, ?) AS i";
+    private static final String HITS = "INSERT INTO statistic (app_name, uri, ip, request_date) "
+            + "SELECT 'main-service', CASE WHEN g % 5 = 0 THEN '/events' ELSE '/events/' || (1 + g % ?) END,"
+            + " '10.' || (g / 65536) % 256 || '.' || (g / 256) % 256 || '.' || g % 256,"
+            + " now() - (g % 2592000) * interval '1 second' "
+            + "FROM generate_series(?, ?) AS g";
+
+    private final LoadConfig config;
+
+    public Seeder(LoadConfig config) {
+        this.config = config;
+    }
+
+    public void seedMain(String url, String user, String password) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            insert(connection, "users", USERS, config.users());
+            insert(connection, "categories", CATEGORIES, config.categories());
+            insert(connection, "locations", LOCATIONS, config.locations());
+            insert(connection, "events", EVENTS, config.events(),
+                    config.categories(), config.locations(), config.users());
+            insert(connection, "requests", REQUESTS, config.requests(),
+                    config.events(), config.events(), config.users());
+            execute(connection, "confirmed_requests", CONFIRMED);
+            insert(connection, "compilations", COMPILATIONS, config.compilations());
+            try (PreparedStatement statement = connection.prepareStatement(COMPILATION_EVENTS)) {
+                statement.setLong(1, config.events());
+                statement.setLong(2, 1);
+                statement.setLong(3, config.compilations());
+                statement.setInt(4, config.eventsPerCompilation());
+                statement.executeUpdate();
+            }
+            execute(connection, "analyze", "ANALYZE");
+        }
+    }
+
+    public void seedStats(String url, String user, String password) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            insert(connection, "statistic", HITS, config.hits(), config.events());
+            // просмотры загружены в обход сервиса, поэтому отметка первого запуска сбрасывается:
+            // при следующем запуске граница построения оценок окажется позже загруженных данных
+            execute(connection, "statistic_backfill", "DELETE FROM statistic_backfill");
+            execute(connection, "analyze", "ANALYZE");
+        }
+    }
+
+    private void insert(Connection connection, String table, String sql, long rows, long... parameters)
+            throws SQLException {
+        long started = System.nanoTime();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (long from = 1; from <= rows; from += config.seedChunk()) {
+                long to = Math.min(rows, from + config.seedChunk() - 1);
+                int index = 1;
+                for (long parameter : parameters) {
+                    statement.setLong(index++, parameter);
+                }
+                statement.setLong(index++, from);
+                statement.setLong(index, to);
+                statement.executeUpdate();
+                log.info("{}: {}/{}", table, to, rows);
+            }
+        }
+        log.info("{}: {} строк за {} с", table, rows, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private void execute(Connection connection, String name, String sql) throws SQLException {
+        long started = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+        log.info("{}: {} с", name, (System.nanoTime() - started) / 1_000_000_000);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ServiceProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(10);
+
+    private final String name;
+    private final Path jar;
+    private final int port;
+    private final List<String> arguments;
+    private Process process;
+
+    public ServiceProcess(String name, Path jar, int port, List<String> arguments) {
+        this.name = name;
+        this.jar = jar;
+        this.port = port;
+        this.arguments = arguments;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    public void start(String... extraArguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.addAll(arguments);
+        command.addAll(List.of(extraArguments));
+        Path logFile = Path.of("target", name + ".log");
+        logFile.getParent().toFile().mkdirs();
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile.toFile()))
+                .start();
+        log.info("{} запускается на порту {}, лог: {}", name, port, logFile.toAbsolutePath());
+        awaitHealthy();
+    }
+
+    public void stop() throws InterruptedException {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        if (!process.waitFor(1, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+        }
+        process = null;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        stop();
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился при запуске с кодом " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    log.info("{} готов", name);
+                    return;
+                }
+            } catch (IOException e) {
+                log.debug("{} еще не готов: {}", name, e.getMessage());
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT);
+    }
+}
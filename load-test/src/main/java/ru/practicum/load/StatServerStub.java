@@ -0,0 +1,77 @@
+package ru.practicum.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class StatServerStub implements AutoCloseable {
+    private final HttpServer server;
+    private final AtomicLong hits = new AtomicLong();
+
+    public StatServerStub(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/hit", this::hit);
+        server.createContext("/stats", this::stats);
+        server.createContext("/actuator/health", exchange -> respond(exchange, 200, "{\"status\":\"UP\"}"));
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void start() {
+        server.start();
+        log.info("Заглушка сервиса статистики запущена на {}", baseUrl());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        log.info("Заглушка сервиса статистики приняла {} запросов на запись", hits.get());
+    }
+
+    private void hit(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        hits.incrementAndGet();
+        respond(exchange, 201, "");
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        StringBuilder body = new StringBuilder("[");
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (!pair.startsWith("uris=")) {
+                    continue;
+                }
+                for (String uri : URLDecoder.decode(pair.substring(5), StandardCharsets.UTF_8).split(",")) {
+                    if (body.length() > 1) {
+                        body.append(',');
+                    }
+                    body.append("{\"app\":\"main-service\",\"uri\":\"").append(uri)
+                            .append("\",\"hits\":").append(uri.hashCode() & 0xFFF).append('}');
+                }
+            }
+        }
+        respond(exchange, 200, body.append(']').toString());
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class Workload {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final LoadConfig config;
+    private final String baseUrl;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public Workload(LoadConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.scenarios = scenarios(config);
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+    }
+
+    public Map<String, Result> run() throws InterruptedException {
+        log.info("Прогрев {} с, {} параллельных клиентов", config.warmup().toSeconds(), config.concurrency());
+        drive(config.warmup(), new LinkedHashMap<>());
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> results.put(scenario.name(), new Result()));
+        log.info("Замер {} с", config.duration().toSeconds());
+        drive(config.duration(), results);
+        return results;
+    }
+
+    private void drive(Duration duration, Map<String, Result> results) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Scenario scenario = pick(ThreadLocalRandom.current());
+                        execute(scenario, results.get(scenario.name()));
+                    }
+                });
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(duration.toMillis() + REQUEST_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void execute(Scenario scenario, Result result) {
+        HttpRequest request = scenario.request().apply(baseUrl, ThreadLocalRandom.current());
+        long started = System.nanoTime();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (result != null) {
+                result.record(System.nanoTime() - started, status);
+            }
+        } catch (IOException e) {
+            if (result != null) {
+                result.failed.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Scenario pick(ThreadLocalRandom random) {
+        int point = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            point -= scenario.weight();
+            if (point < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.getLast();
+    }
+
+    private static List<Scenario> scenarios(LoadConfig config) {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("GET /events", 30, (url, random) -> get(url + "/events?from=0&size=10&sort="
+                + (random.nextBoolean() ? "VIEWS" : "EVENT_DATE") + "&categories=" + (1 + random.nextLong(config.categories())))));
+        // слово из аннотации каждого события: совпадения находятся сразу, индекс почти не нужен
+        scenarios.add(new Scenario("GET /events?text=частое", 5, (url, random) -> get(url + "/events?from=0&size=10&text="
+                + encode("концерт") + "&onlyOnAvailable=true")));
+        // номер конкретного события: под шаблон попадает одна строка из всей таблицы, без индекса это полный просмотр
+        scenarios.add(new Scenario("GET /events?text=редкое", 5, (url, random) -> get(url + "/events?from=0&size=10&text="
+                + encode("номер " + publishedEvent(config, random) + ",") + "&onlyOnAvailable=true")));
+        // точка внутри сетки мест из Seeder, в радиус 5 км попадает несколько десятков мест
+        scenarios.add(new Scenario("GET /events?lat&lon&radius", 10, (url, random) -> get(url + "/events?from=0&size=10"
+                + "&sort=EVENT_DATE&lat=" + (40 + random.nextDouble(Math.min(1000, config.locations()) * 0.02))
+                + "&lon=" + (20 + random.nextDouble(Math.max(1, config.locations() / 1000) * 0.02)) + "&radius=5")));
+        scenarios.add(new Scenario("GET /events/{id}", 30, (url, random) -> get(url + "/events/" + publishedEvent(config, random))));
+        scenarios.add(new Scenario("GET /compilations", 10, (url, random) -> get(url + "/compilations?from="
+                + random.nextLong(Math.max(1, config.compilations() - 10)) + "&size=10")));
+        scenarios.add(new Scenario("GET /users/{id}/requests", 10, (url, random) -> get(url + "/users/"
+                + (1 + random.nextLong(config.users())) + "/requests")));
+        scenarios.add(new Scenario("POST /users/{id}/requests", 10, (url, random) -> HttpRequest.newBuilder(URI.create(url
+                        + "/users/" + (1 + random.nextLong(config.users())) + "/requests?eventId=" + publishedEvent(config, random)))
+                .timeout(REQUEST_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build()));
+        if (config.scenarios().isEmpty()) {
+            return scenarios;
+        }
+        List<Scenario> selected = scenarios.stream()
+                .filter(scenario -> config.scenarios().stream().anyMatch(name -> scenario.name().contains(name)))
+                .toList();
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("Нет сценариев по load.scenarios=" + config.scenarios());
+        }
+        return selected;
+    }
+
+    private static long publishedEvent(LoadConfig config, ThreadLocalRandom random) {
+        long id = 1 + random.nextLong(config.events());
+        return id % 10 == 0 ? id - 1 : id;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    public static class Result {
+        private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final AtomicLong success = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        void record(long nanos, int status) {
+            recorder.recordValue(Math.min(nanos, MAX_LATENCY_NANOS));
+            if (status >= 500) {
+                errors.incrementAndGet();
+            } else if (status >= 400) {
+                rejected.incrementAndGet();
+            } else {
+                success.incrementAndGet();
+            }
+        }
+
+        public Histogram histogram() {
+            return recorder.getIntervalHistogram();
+        }
+
+        public long success() {
+            return success.get();
+        }
+
+        public long rejected() {
+            return rejected.get();
+        }
+
+        public long errors() {
+            return errors.get();
+        }
+
+        public long failed() {
+            return failed.get();
+        }
+    }
+}
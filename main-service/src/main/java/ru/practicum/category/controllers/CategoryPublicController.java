@@ -3,6 +3,7 @@ package ru.practicum.category.controllers;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.category.dto.CategoryDto;
@@ -18,9 +19,10 @@ public class CategoryPublicController {
     private final CategoryService service;
 
     @GetMapping
-    public List<CategoryDto> allCategories(@Min(0) @RequestParam(defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
-        return service.findAll(from, size);
+    public ResponseEntity<List<CategoryDto>> allCategories(@Min(0) @RequestParam(defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String cursor) {
+        return service.findAll(from, size, cursor).toResponse();
     }
 
     @GetMapping("/{catId}")
@@ -1,15 +1,19 @@
 package ru.practicum.category.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.category.model.Category;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByNameContainsIgnoreCase(String name);
 
+    List<Category> findByIdGreaterThan(Long id, Pageable pageable);
+
     @Query("SELECT COUNT(c) > 0 FROM Category c WHERE c.name = :name AND c.id != :id")
     boolean existsByNameAndIdNot(@Param("name") String name, @Param("id") Long id);
 }
@@ -0,0 +1,52 @@
+package ru.practicum.category.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.category.dto.CategoryDto;
+import ru.practicum.category.mapper.CategoryMapper;
+import ru.practicum.category.repository.CategoryRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryCache {
+    private final CategoryRepository repository;
+    private final MeterRegistry meterRegistry;
+    private LoadingCache<Long, CategoryDto> cache;
+
+    @Value("${categories.cache.ttl:1h}")
+    private Duration ttl;
+
+    @Value("${categories.cache.max-size:1000}")
+    private long maxSize;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(catId -> repository.findById(catId)
+                        .map(CategoryMapper::mapToDto)
+                        .orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "categories");
+    }
+
+    public Optional<CategoryDto> get(Long catId) {
+        return Optional.ofNullable(cache.get(catId));
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChanged changed) {
+        cache.invalidate(changed.categoryId());
+    }
+}
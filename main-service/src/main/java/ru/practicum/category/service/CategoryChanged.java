@@ -0,0 +1,4 @@
+package ru.practicum.category.service;
+
+public record CategoryChanged(Long categoryId) {
+}
@@ -2,11 +2,10 @@ package ru.practicum.category.service;
 
 import ru.practicum.category.dto.CategoryDto;
 import ru.practicum.category.dto.NewCategoryDto;
-
-import java.util.List;
+import ru.practicum.pagination.CursorPage;
 
 public interface CategoryService {
-    List<CategoryDto> findAll(Integer from, Integer size);
+    CursorPage<CategoryDto> findAll(Integer from, Integer size, String cursor);
 
     CategoryDto findById(Long catId);
 
@@ -1,8 +1,10 @@
 package ru.practicum.category.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.dto.CategoryDto;
@@ -13,6 +15,8 @@ import ru.practicum.category.repository.CategoryRepository;
 import ru.practicum.events.repository.EventRepository;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.Cursor;
+import ru.practicum.pagination.CursorPage;
 
 import java.util.List;
 
@@ -22,17 +26,25 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository repository;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryCache categoryCache;
 
     @Override
-    public List<CategoryDto> findAll(Integer from, Integer size) {
+    public CursorPage<CategoryDto> findAll(Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Pageable pageable = PageRequest.of(0, size, Sort.by("id"));
+            List<Category> categories = repository.findByIdGreaterThan(Cursor.decode(cursor).id(), pageable);
+            return CursorPage.of(categories.stream().map(CategoryMapper::mapToDto).toList(), categories, size,
+                    category -> Cursor.encode(null, category.getId()));
+        }
         Pageable pageable = PageRequest.of(from / size, size);
-        return repository.findAll(pageable).stream().map(CategoryMapper::mapToDto).toList();
+        return CursorPage.of(repository.findAll(pageable).stream().map(CategoryMapper::mapToDto).toList());
     }
 
     @Override
     public CategoryDto findById(Long catId) {
-        Category category = checkCategory(catId);
-        return CategoryMapper.mapToDto(category);
+        return categoryCache.get(catId)
+                .orElseThrow(() -> new NotFoundException("Категория с id=" + catId + " не найдена"));
     }
 
     @Override
@@ -63,6 +75,7 @@ public class CategoryServiceImpl implements CategoryService {
             }
 
             category.setName(newName);
+            eventPublisher.publishEvent(new CategoryChanged(catId));
         }
 
         Category updatedCategory = repository.save(category);
@@ -76,9 +89,6 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ConflictException("Категория относиться к событию");
         }
         repository.deleteById(catId);
-    }
-
-    private Category checkCategory(Long catId) {
-        return repository.findById(catId).orElseThrow(() -> new NotFoundException("Категория с id=" + catId + " не найдена"));
+        eventPublisher.publishEvent(new CategoryChanged(catId));
     }
 }
\ No newline at end of file
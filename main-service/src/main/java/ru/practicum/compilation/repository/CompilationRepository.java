@@ -7,17 +7,37 @@ import org.springframework.data.repository.query.Param;
 import ru.practicum.compilation.model.Compilation;
 import ru.practicum.events.model.EventState;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
     List<Compilation> findByPinned(Boolean pinned, Pageable pageable);
 
+    List<Compilation> findByIdGreaterThan(Long id, Pageable pageable);
+
+    List<Compilation> findByPinnedAndIdGreaterThan(Boolean pinned, Long id, Pageable pageable);
+
     boolean existsByTitle(String title);
 
-    @Query("SELECT c FROM Compilation c LEFT JOIN FETCH c.events WHERE c.id = :id")
+    @Query("""
+        SELECT c FROM Compilation c
+        LEFT JOIN FETCH c.events e
+        LEFT JOIN FETCH e.category
+        LEFT JOIN FETCH e.initiator
+        WHERE c.id = :id
+        """)
     Optional<Compilation> findByIdWithEvents(@Param("id") Long id);
 
+    @Query("""
+        SELECT DISTINCT c FROM Compilation c
+        LEFT JOIN FETCH c.events e
+        LEFT JOIN FETCH e.category
+        LEFT JOIN FETCH e.initiator
+        WHERE c.id IN :ids
+        """)
+    List<Compilation> findAllWithEventsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT c FROM Compilation c JOIN c.events e WHERE c.id = :compId AND e.state = :eventState")
     Optional<Compilation> findByIdWithPublishedEvents(@Param("compId") Long compId,
                                                       @Param("eventState") EventState eventState);
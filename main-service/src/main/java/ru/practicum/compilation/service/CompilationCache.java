@@ -0,0 +1,122 @@
+package ru.practicum.compilation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.category.service.CategoryChanged;
+import ru.practicum.compilation.dto.CompilationDto;
+import ru.practicum.events.dto.EventShortDto;
+import ru.practicum.events.service.EventChanged;
+import ru.practicum.user.service.UserChanged;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompilationCache {
+    private final MeterRegistry meterRegistry;
+    private Cache<Long, CompilationDto> compilations;
+    private Cache<PageKey, List<Long>> pages;
+    // Растёт при каждой инвалидации: загрузка, начатая до неё, могла прочитать устаревшие данные
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${compilations.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${compilations.cache.max-size:1000}")
+    private long maxSize;
+
+    @PostConstruct
+    public void init() {
+        compilations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compilations, "compilations");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "compilationPages");
+    }
+
+    public CompilationDto get(Long compId, Function<Long, CompilationDto> loader) {
+        long started = generation.get();
+        CompilationDto compilation = compilations.get(compId, loader);
+        dropIfStale(compilations, started, Map.of(compId, compilation));
+        return compilation;
+    }
+
+    public Map<Long, CompilationDto> getAll(Collection<Long> compIds,
+                                            Function<Set<? extends Long>, Map<Long, CompilationDto>> loader) {
+        long started = generation.get();
+        Map<Long, CompilationDto> loaded = compilations.getAll(compIds, loader);
+        dropIfStale(compilations, started, loaded);
+        return loaded;
+    }
+
+    public List<Long> getPage(PageKey key, Supplier<List<Long>> loader) {
+        long started = generation.get();
+        List<Long> ids = pages.get(key, k -> loader.get());
+        dropIfStale(pages, started, Map.of(key, ids));
+        return ids;
+    }
+
+    @TransactionalEventListener
+    public void onCompilationChanged(CompilationChanged changed) {
+        generation.incrementAndGet();
+        compilations.invalidate(changed.compilationId());
+        pages.invalidateAll();
+        log.debug("Подборка {} удалена из кэша", changed.compilationId());
+    }
+
+    @TransactionalEventListener
+    public void onEventChanged(EventChanged changed) {
+        invalidateIf(event -> changed.eventId().equals(event.getId()));
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChanged changed) {
+        invalidateIf(event -> event.getCategory() != null && changed.categoryId().equals(event.getCategory().getId()));
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChanged changed) {
+        invalidateIf(event -> event.getInitiator() != null && changed.userId().equals(event.getInitiator().getId()));
+    }
+
+    private void invalidateIf(Predicate<EventShortDto> affected) {
+        generation.incrementAndGet();
+        compilations.asMap().values().removeIf(compilation -> compilation.getEvents().stream().anyMatch(affected));
+    }
+
+    // removeIf и invalidateAll не видят незавершённые загрузки, поэтому загрузка сама убирает своё значение,
+    // если за время её выполнения была инвалидация. Значение вызывающему всё равно возвращается
+    private <K, V> void dropIfStale(Cache<K, V> cache, long started, Map<K, V> loaded) {
+        if (generation.get() != started) {
+            loaded.forEach((key, value) -> cache.asMap().remove(key, value));
+            log.debug("Загрузка пересеклась с инвалидацией, {} значений не сохранено в кэше", loaded.size());
+        }
+    }
+
+    public record PageKey(Boolean pinned, Integer from, Integer size, Long afterId) {
+    }
+}
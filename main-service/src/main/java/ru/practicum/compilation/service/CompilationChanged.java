@@ -0,0 +1,4 @@
+package ru.practicum.compilation.service;
+
+public record CompilationChanged(Long compilationId) {
+}
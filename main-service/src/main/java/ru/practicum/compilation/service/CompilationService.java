@@ -3,12 +3,11 @@ package ru.practicum.compilation.service;
 import ru.practicum.compilation.dto.CompilationDto;
 import ru.practicum.compilation.dto.NewCompilationDto;
 import ru.practicum.compilation.dto.UpdateCompilationRequest;
-
-import java.util.List;
+import ru.practicum.pagination.CursorPage;
 
 public interface CompilationService {
 
-    List<CompilationDto> getCompilations(Boolean pinned, Integer from, Integer size);
+    CursorPage<CompilationDto> getCompilations(Boolean pinned, Integer from, Integer size, String cursor);
 
     CompilationDto getCompilationById(Long compId);
 
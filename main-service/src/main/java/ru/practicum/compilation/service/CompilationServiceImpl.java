@@ -1,58 +1,123 @@
 package ru.practicum.compilation.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.compilation.dto.CompilationDto;
 import ru.practicum.compilation.dto.NewCompilationDto;
 import ru.practicum.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.compilation.mapper.CompilationMapper;
 import ru.practicum.compilation.model.Compilation;
 import ru.practicum.compilation.repository.CompilationRepository;
+import ru.practicum.events.dto.EventShortDto;
 import ru.practicum.events.model.Event;
 import ru.practicum.events.repository.EventRepository;
+import ru.practicum.events.service.EventViewsCache;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.Cursor;
+import ru.practicum.pagination.CursorPage;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final CompilationCache compilationCache;
+    private final EventViewsCache viewsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
-    public List<CompilationDto> getCompilations(Boolean pinned, Integer from, Integer size) {
-        int page = from / size;
-        Pageable pageable = PageRequest.of(page, size);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<CompilationDto> getCompilations(Boolean pinned, Integer from, Integer size, String cursor) {
+        Long afterId = cursor != null ? Cursor.decode(cursor).id() : null;
+        CompilationCache.PageKey key = new CompilationCache.PageKey(pinned, afterId == null ? from : null, size, afterId);
+        List<Long> ids = compilationCache.getPage(key, () -> readOnly(() -> findPageIds(pinned, from, size, afterId)));
+        Map<Long, CompilationDto> dtos = compilationCache.getAll(ids, this::loadCompilations);
+        List<CompilationDto> content = withViews(ids.stream()
+                .map(dtos::get)
+                .filter(Objects::nonNull)
+                .toList());
+        if (afterId != null) {
+            return CursorPage.of(content, ids, size, id -> Cursor.encode(null, id));
+        }
+        return CursorPage.of(content);
+    }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompilationDto getCompilationById(Long compId) {
+        CompilationDto compilation = compilationCache.get(compId, id -> readOnly(() -> compilationRepository.findByIdWithEvents(id)
+                .map(CompilationMapper::toDto)
+                .orElseThrow(() -> new NotFoundException("Подборка с id = " + id + " не найдена"))));
+        return withViews(List.of(compilation)).getFirst();
+    }
+
+    private List<Long> findPageIds(Boolean pinned, Integer from, Integer size, Long afterId) {
         List<Compilation> compilations;
-        if (pinned != null) {
-            compilations = compilationRepository.findByPinned(pinned, pageable);
+        if (afterId != null) {
+            Pageable pageable = PageRequest.of(0, size, Sort.by("id"));
+            compilations = pinned != null
+                    ? compilationRepository.findByPinnedAndIdGreaterThan(pinned, afterId, pageable)
+                    : compilationRepository.findByIdGreaterThan(afterId, pageable);
         } else {
-            compilations = compilationRepository.findAll(pageable).getContent();
+            Pageable pageable = PageRequest.of(from / size, size);
+            compilations = pinned != null
+                    ? compilationRepository.findByPinned(pinned, pageable)
+                    : compilationRepository.findAll(pageable).getContent();
         }
-
         return compilations.stream()
-                .map(CompilationMapper::toDto)
-                .collect(Collectors.toList());
+                .map(Compilation::getId)
+                .toList();
     }
 
-    @Override
-    public CompilationDto getCompilationById(Long compId) {
-        Compilation compilation = compilationRepository.findById(compId)
-                .orElseThrow(() -> new NotFoundException("Подборка с id = " + compId + " не найдена"));
+    private Map<Long, CompilationDto> loadCompilations(Set<? extends Long> ids) {
+        return readOnly(() -> compilationRepository.findAllWithEventsByIdIn(List.copyOf(ids)).stream()
+                .collect(Collectors.toMap(Compilation::getId, CompilationMapper::toDto)));
+    }
 
-        return CompilationMapper.toDto(compilation);
+    private List<CompilationDto> withViews(List<CompilationDto> compilations) {
+        Set<Long> eventIds = compilations.stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .map(EventShortDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Long> views = viewsCache.getViews(eventIds);
+        return compilations.stream()
+                .map(compilation -> compilation.toBuilder()
+                        .events(compilation.getEvents().stream()
+                                .map(event -> event.toBuilder()
+                                        .views(views.getOrDefault(event.getId(), 0L))
+                                        .build())
+                                .toList())
+                        .build())
+                .toList();
+    }
+
+    private <T> T readOnly(Supplier<T> action) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return tx.execute(status -> action.get());
     }
 
     @Override
@@ -69,6 +134,7 @@ public class CompilationServiceImpl implements CompilationService {
         }
 
         Compilation savedCompilation = compilationRepository.save(compilation);
+        eventPublisher.publishEvent(new CompilationChanged(savedCompilation.getId()));
         return CompilationMapper.toDto(savedCompilation);
     }
 
@@ -77,6 +143,7 @@ public class CompilationServiceImpl implements CompilationService {
     public void deleteCompilation(Long compId) {
         try {
             compilationRepository.deleteById(compId);
+            eventPublisher.publishEvent(new CompilationChanged(compId));
         } catch (EmptyResultDataAccessException e) {
             throw new NotFoundException("Подборка с id = " + compId + " не найдена");
         }
@@ -113,6 +180,7 @@ public class CompilationServiceImpl implements CompilationService {
             }
         }
 
+        eventPublisher.publishEvent(new CompilationChanged(compId));
         return CompilationMapper.toDto(compilation);
     }
 }
@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -28,7 +29,7 @@ public class EventAdminController {
     private final EventService eventAdminService;
 
     @GetMapping
-    public List<EventDto> getEvents(@RequestParam(required = false) List<Long> users,
+    public ResponseEntity<List<EventDto>> getEvents(@RequestParam(required = false) List<Long> users,
                                     @RequestParam(required = false) List<String> states,
                                     @RequestParam(required = false) List<Long> categories,
                                     @RequestParam(required = false)
@@ -36,9 +37,11 @@ public class EventAdminController {
                                     @RequestParam(required = false)
                                         @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                     @RequestParam(defaultValue = "0") Integer from,
-                                    @RequestParam(defaultValue = "10") Integer size) {
+                                    @RequestParam(defaultValue = "10") Integer size,
+                                    @RequestParam(required = false) String cursor) {
 
-        return eventAdminService.getEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+        return eventAdminService.getEvents(users, states, categories, rangeStart, rangeEnd, from, size, cursor)
+                .toResponse();
     }
 
     @PatchMapping("/{eventId}")
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.events.dto.*;
@@ -27,10 +28,11 @@ public class EventPrivateController {
     private final RequestService requestService;
 
     @GetMapping
-    public List<EventShortDto> getEventsByOwner(@PathVariable Long userId,
+    public ResponseEntity<List<EventShortDto>> getEventsByOwner(@PathVariable Long userId,
                                            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                           @RequestParam(defaultValue = "10") @Positive Integer size) {
-        return eventService.getEventsByOwner(userId, from, size);
+                                           @RequestParam(defaultValue = "10") @Positive Integer size,
+                                           @RequestParam(required = false) String cursor) {
+        return eventService.getEventsByOwner(userId, from, size, cursor).toResponse();
     }
 
     @PostMapping
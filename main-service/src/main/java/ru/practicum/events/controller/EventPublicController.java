@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.StatClient;
@@ -27,7 +28,7 @@ public class EventPublicController {
     private static final String MAIN_SERVICE = "ewm-main-service";
 
     @GetMapping
-    public List<EventShortDto> allEvents(@RequestParam(required = false) String text,
+    public ResponseEntity<List<EventShortDto>> allEvents(@RequestParam(required = false) String text,
                                          @RequestParam(defaultValue = "views") String sort,
                                          @Min(0) @RequestParam(defaultValue = "0") Integer from,
                                          @Positive @RequestParam(defaultValue = "10") Integer size,
@@ -36,6 +37,10 @@ public class EventPublicController {
                                          @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                          @RequestParam(required = false) Boolean paid,
                                          @RequestParam(defaultValue = "false") Boolean onlyOnAvailable,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Double lat,
+                                         @RequestParam(required = false) Double lon,
+                                         @RequestParam(required = false) Double radius,
                                          HttpServletRequest request) {
         EntityParam entityParam = EntityParam.builder()
                 .text(text)
@@ -47,8 +52,12 @@ public class EventPublicController {
                 .rangeEnd(rangeEnd)
                 .paid(paid)
                 .onlyAvailable(onlyOnAvailable)
+                .cursor(cursor)
+                .lat(lat)
+                .lon(lon)
+                .radius(radius)
                 .build();
-        return service.allEvents(entityParam, request.getRemoteAddr());
+        return service.allEvents(entityParam, request.getRemoteAddr()).toResponse();
     }
 
     @GetMapping("/{eventId}")
@@ -22,4 +22,8 @@ public class EntityParam {
     private LocalDateTime rangeEnd;
     private Boolean paid;
     private Boolean onlyAvailable;
+    private String cursor;
+    private Double lat;
+    private Double lon;
+    private Double radius;
 }
@@ -81,45 +81,49 @@ public class EventMapper {
     }
 
     public EventShortDto toEventShortDto(Event event) {
-        EventShortDto.EventShortDtoBuilder builder = EventShortDto.builder()
+        return toEventShortDto(event, toCategoryDto(event), UserMapper.toUserShortDto(event.getInitiator()));
+    }
+
+    public EventShortDto toEventShortDto(Event event, CategoryDto category, UserShortDto initiator) {
+        return EventShortDto.builder()
                 .id(event.getId())
                 .title(event.getTitle())
                 .annotation(event.getAnnotation())
-                .confirmedRequests(0L)
+                .confirmedRequests(event.getConfirmedRequests())
                 .views(0L)
                 .eventDate(event.getEventDate())
                 .paid(event.getPaid())
-                .initiator(UserMapper.toUserShortDto(event.getInitiator()));
-
-        if (event.getCategory() != null) {
-            builder.category(CategoryMapper.mapToDto(event.getCategory()));
-        }
-
-        return builder.build();
+                .category(category)
+                .initiator(initiator)
+                .build();
     }
 
     public EventDto toEventDto(Event event) {
-        EventDto.EventDtoBuilder builder = EventDto.builder()
+        return toEventDto(event, toCategoryDto(event), UserMapper.toUserShortDto(event.getInitiator()));
+    }
+
+    public EventDto toEventDto(Event event, CategoryDto category, UserShortDto initiator) {
+        return EventDto.builder()
                 .id(event.getId())
                 .title(event.getTitle())
                 .annotation(event.getAnnotation())
                 .description(event.getDescription())
-                .confirmedRequests(0L)
+                .confirmedRequests(event.getConfirmedRequests())
                 .views(0L)
                 .eventDate(event.getEventDate())
                 .paid(event.getPaid())
                 .requestModeration(event.getRequestModeration())
                 .participantLimit(event.getParticipantLimit())
                 .location(LocationMapper.toLocationDto(event.getLocation()))
-                .initiator(UserMapper.toUserShortDto(event.getInitiator()))
+                .category(category)
+                .initiator(initiator)
                 .state(event.getState())
                 .publishedOn(event.getPublishedOn())
-                .createdOn(event.getCreatedOn());
-
-        if (event.getCategory() != null) {
-            builder.category(CategoryMapper.mapToDto(event.getCategory()));
-        }
+                .createdOn(event.getCreatedOn())
+                .build();
+    }
 
-        return builder.build();
+    private CategoryDto toCategoryDto(Event event) {
+        return event.getCategory() != null ? CategoryMapper.mapToDto(event.getCategory()) : null;
     }
 }
\ No newline at end of file
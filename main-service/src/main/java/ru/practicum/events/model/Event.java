@@ -14,7 +14,19 @@ import java.time.LocalDateTime;
 @ToString
 @Entity
 @Table(name = "events")
+@NamedEntityGraph(name = Event.SHORT_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator")
+})
+@NamedEntityGraph(name = Event.FULL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator"),
+        @NamedAttributeNode("location")
+})
 public class Event {
+    public static final String SHORT_GRAPH = "Event.short";
+    public static final String FULL_GRAPH = "Event.full";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -37,7 +49,7 @@ public class Event {
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "location_id")
     private Location location;
 
@@ -53,4 +65,10 @@ public class Event {
 
     @Column(name = "created_at")
     private LocalDateTime createdOn;
+
+    @Column(updatable = false)
+    private long views;
+
+    @Column(name = "confirmed_requests", updatable = false)
+    private long confirmedRequests;
 }
@@ -1,12 +1,21 @@
 package ru.practicum.events.model;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
 public enum EventSort {
-    EVENT_DATE,
-    VIEWS;
+    EVENT_DATE("eventDate"),
+    VIEWS("views"),
+    RELEVANCE("views");
+
+    private final String property;
 
     public static EventSort from(String sort) {
         return switch (sort.toLowerCase()) {
             case "event_date", "event date" -> EVENT_DATE;
+            case "relevance" -> RELEVANCE;
             default -> VIEWS;
         };
     }
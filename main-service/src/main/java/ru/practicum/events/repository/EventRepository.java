@@ -1,8 +1,12 @@
 package ru.practicum.events.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
@@ -13,13 +17,23 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event> {
+public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event>,
+        EventRepositoryCustom {
+    @EntityGraph(Event.FULL_GRAPH)
     Optional<Event> findByIdAndInitiatorId(Long eventId, Long userId);
 
+    @EntityGraph(Event.FULL_GRAPH)
+    Optional<Event> findWithDetailsById(Long eventId);
+
+    @EntityGraph(Event.SHORT_GRAPH)
     Page<Event> findAllByInitiatorId(Long userId, Pageable pageable);
 
+    @EntityGraph(Event.SHORT_GRAPH)
+    List<Event> findAllByInitiatorIdAndIdGreaterThan(Long userId, Long id, Pageable pageable);
+
     boolean existsByCategory_Id(Long catId);
 
+    @EntityGraph(Event.FULL_GRAPH)
     @Query("""
         SELECT e FROM Event e
         WHERE (COALESCE(:users) IS NULL OR e.initiator.id IN (:users))
@@ -27,6 +41,7 @@ public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPre
         AND (COALESCE(:categories) IS NULL OR e.category.id IN (:categories))
         AND (CAST(:rangeStart AS localdatetime) IS NULL OR e.eventDate >= :rangeStart)
         AND (CAST(:rangeEnd AS localdatetime) IS NULL OR e.eventDate <= :rangeEnd)
+        AND e.id > :afterId
         """)
     List<Event> findEventsByAdminFilters(
             @Param("users") List<Long> users,
@@ -34,7 +49,30 @@ public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPre
             @Param("categories") List<Long> categories,
             @Param("rangeStart") LocalDateTime rangeStart,
             @Param("rangeEnd") LocalDateTime rangeEnd,
+            @Param("afterId") Long afterId,
             Pageable pageable);
-}
 
+    @Query("SELECT e.id FROM Event e WHERE e.state = :state AND e.eventDate > :now AND e.id > :afterId ORDER BY e.id")
+    List<Long> findUpcomingIdsByStateAfter(@Param("state") EventState state,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId AND e.initiator.id = :userId")
+    Optional<Event> findByIdAndInitiatorIdForUpdate(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+        UPDATE events
+        SET confirmed_requests = confirmed_requests + :count
+        WHERE id = :eventId
+        AND (participant_limit = 0 OR confirmed_requests + :count <= participant_limit)
+        """, nativeQuery = true)
+    int reserveSlots(@Param("eventId") Long eventId, @Param("count") long count);
+
+    @Modifying
+    @Query(value = "UPDATE events SET confirmed_requests = GREATEST(confirmed_requests - :count, 0) WHERE id = :eventId",
+            nativeQuery = true)
+    int releaseSlots(@Param("eventId") Long eventId, @Param("count") long count);
+}
@@ -0,0 +1,11 @@
+package ru.practicum.events.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.events.dto.EventShortDto;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+    List<EventShortDto> findShortEvents(Predicate predicate, Pageable pageable);
+}
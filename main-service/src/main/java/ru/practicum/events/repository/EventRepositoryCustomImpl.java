@@ -0,0 +1,51 @@
+package ru.practicum.events.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import ru.practicum.category.dto.CategoryDto;
+import ru.practicum.category.model.QCategory;
+import ru.practicum.events.dto.EventShortDto;
+import ru.practicum.events.model.Event;
+import ru.practicum.events.model.QEvent;
+import ru.practicum.user.dto.UserShortDto;
+import ru.practicum.user.model.QUser;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<EventShortDto> findShortEvents(Predicate predicate, Pageable pageable) {
+        QEvent event = QEvent.event;
+        QCategory category = QCategory.category;
+        QUser initiator = QUser.user;
+
+        JPAQuery<EventShortDto> query = new JPAQueryFactory(entityManager)
+                .select(Projections.bean(EventShortDto.class,
+                        event.id,
+                        event.title,
+                        event.annotation,
+                        event.paid,
+                        event.eventDate,
+                        event.views,
+                        event.confirmedRequests,
+                        Projections.bean(CategoryDto.class, category.id, category.name).as("category"),
+                        Projections.bean(UserShortDto.class, initiator.id, initiator.name).as("initiator")))
+                .from(event)
+                .join(event.category, category)
+                .join(event.initiator, initiator)
+                .where(predicate);
+
+        Querydsl querydsl = new Querydsl(entityManager, new PathBuilder<>(Event.class, event.getMetadata()));
+        return querydsl.applyPagination(pageable, query).fetch();
+    }
+}
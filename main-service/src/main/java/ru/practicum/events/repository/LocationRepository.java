@@ -1,10 +1,18 @@
 package ru.practicum.events.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.events.model.Location;
 
 import java.util.Optional;
 
 public interface LocationRepository extends JpaRepository<Location, Long> {
     Optional<Location> findFirstByLatAndLon(Float lat, Float lon);
+
+    @Modifying
+    @Query(value = "INSERT INTO locations (lat, lon) VALUES (:lat, :lon) ON CONFLICT (lat, lon) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("lat") Float lat, @Param("lon") Float lon);
 }
@@ -0,0 +1,58 @@
+package ru.practicum.events.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmedRequestsReconciler {
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Scheduled(fixedDelayString = "${events.stats.reconcile-interval:PT10M}", initialDelayString = "${events.stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        try {
+            List<Long> drifted = jdbcTemplate.queryForList("""
+                    SELECT e.id
+                    FROM events AS e
+                    LEFT JOIN (SELECT event_id, COUNT(*) AS cnt FROM requests WHERE status = 'CONFIRMED' GROUP BY event_id) AS c
+                    ON c.event_id = e.id
+                    WHERE e.confirmed_requests <> COALESCE(c.cnt, 0)
+                    """, Long.class);
+            if (drifted.isEmpty()) {
+                log.debug("Счетчики подтвержденных заявок согласованы");
+                return;
+            }
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            drifted.forEach(eventId -> tx.executeWithoutResult(status -> repair(eventId)));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сверить счетчики подтвержденных заявок: {}", e.getMessage());
+        }
+    }
+
+    private void repair(Long eventId) {
+        List<Long> stored = jdbcTemplate.queryForList(
+                "SELECT confirmed_requests FROM events WHERE id = ? FOR UPDATE", Long.class, eventId);
+        if (stored.isEmpty()) {
+            return;
+        }
+        Long actual = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM requests WHERE event_id = ? AND status = 'CONFIRMED'", Long.class, eventId);
+        if (!stored.getFirst().equals(actual)) {
+            jdbcTemplate.update("UPDATE events SET confirmed_requests = ? WHERE id = ?", actual, eventId);
+            eventPublisher.publishEvent(new EventChanged(eventId));
+            log.warn("Исправлен счетчик подтвержденных заявок события {}: было {}, стало {}",
+                    eventId, stored.getFirst(), actual);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.events.service;
+
+public record EventChanged(Long eventId) {
+}
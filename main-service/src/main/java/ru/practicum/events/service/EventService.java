@@ -6,16 +6,17 @@ import ru.practicum.events.dto.EntityParam;
 import ru.practicum.events.dto.EventDto;
 import ru.practicum.events.dto.EventShortDto;
 import ru.practicum.events.dto.EventUpdateDto;
+import ru.practicum.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface EventService {
-    List<EventShortDto> getEventsByOwner(Long userId, Integer from, Integer size);
+    CursorPage<EventShortDto> getEventsByOwner(Long userId, Integer from, Integer size, String cursor);
 
     EventDto addEvent(Long userId, EventCreateDto eventCreateDto);
 
-    List<EventShortDto> allEvents(EntityParam params, String ip);
+    CursorPage<EventShortDto> allEvents(EntityParam params, String ip);
 
     EventDto getEventByOwner(Long userId, Long eventId);
 
@@ -23,8 +24,9 @@ public interface EventService {
 
     EventDto eventById(Long evenId, String ip);
 
-    List<EventDto> getEvents(List<Long> users, List<String> states, List<Long> categories,
-                             LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size);
+    CursorPage<EventDto> getEvents(List<Long> users, List<String> states, List<Long> categories,
+                                   LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size,
+                                   String cursor);
 
     EventDto updateEvent(Long eventId, EventAdminUpdateDto updateRequest);
 }
@@ -1,29 +1,31 @@
 package ru.practicum.events.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.querydsl.QPageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.category.model.Category;
+import ru.practicum.category.dto.CategoryDto;
+import ru.practicum.category.service.CategoryCache;
 import ru.practicum.category.repository.CategoryRepository;
 import ru.practicum.events.dto.*;
 import ru.practicum.events.mapper.EventMapper;
-import ru.practicum.events.mapper.LocationMapper;
 import ru.practicum.events.model.Event;
 import ru.practicum.events.model.EventState;
 import ru.practicum.events.model.Location;
 import ru.practicum.events.repository.EventRepository;
-import ru.practicum.events.repository.LocationRepository;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.EventConflictException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
-import ru.practicum.request.dto.ConfirmedRequests;
-import ru.practicum.request.model.RequestStatus;
-import ru.practicum.request.repository.RequestRepository;
-import ru.practicum.user.model.User;
+import ru.practicum.pagination.Cursor;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.user.dto.UserShortDto;
+import ru.practicum.user.service.UserShortCache;
 import ru.practicum.user.repository.UserRepository;
 
 import java.time.format.DateTimeFormatter;
@@ -31,57 +33,58 @@ import java.time.format.DateTimeParseException;
 import java.util.stream.Collectors;
 
 
-import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.BooleanExpression;
-import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.StringPath;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.StatClient;
 import ru.practicum.dto.EndpointHitDto;
-import ru.practicum.dto.ViewStats;
 import ru.practicum.events.model.EventSort;
 import ru.practicum.events.model.QEvent;
-import ru.practicum.request.model.QRequest;
+import ru.practicum.events.model.QLocation;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class EventServiceImpl implements EventService {
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = 111.195;
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
-    private final LocationRepository locationRepository;
-    private final RequestRepository requestRepository;
+    private final LocationCache locationCache;
     private final StatClient client;
+    private final EventViewsCache viewsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryCache categoryCache;
+    private final UserShortCache userCache;
 
     @Override
-    public List<EventShortDto> getEventsByOwner(Long userId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Event> events = eventRepository.findAllByInitiatorId(userId, pageable).toList();
-        List<Long> eventIds = events.stream()
-                .map(Event::getId)
-                .toList();
-        Map<Long, Long> confirmedRequestsMap = requestRepository.findAllByEventIdInAndStatus(eventIds, RequestStatus.CONFIRMED)
-                .stream()
-                .collect(Collectors.toMap(
-                        ConfirmedRequests::getEvent,
-                        ConfirmedRequests::getCount,
-                        (count1, count2) -> count1 + count2  // ДОБАВЬТЕ ЭТО
-                ));
-
-        return events.stream()
-                .map(event -> {
-                    EventShortDto dto = EventMapper.toEventShortDto(event);
-                    dto.setConfirmedRequests(confirmedRequestsMap.getOrDefault(event.getId(), 0L));
-                    return dto;
-                })
+    public CursorPage<EventShortDto> getEventsByOwner(Long userId, Integer from, Integer size, String cursor) {
+        List<Event> events;
+        if (cursor != null) {
+            Pageable pageable = PageRequest.of(0, size, Sort.by("id"));
+            events = eventRepository.findAllByInitiatorIdAndIdGreaterThan(userId, Cursor.decode(cursor).id(), pageable);
+        } else {
+            Pageable pageable = PageRequest.of(from / size, size);
+            events = eventRepository.findAllByInitiatorId(userId, pageable).toList();
+        }
+        List<EventShortDto> dtos = events.stream()
+                .map(EventMapper::toEventShortDto)
                 .toList();
+        if (cursor != null) {
+            return CursorPage.of(dtos, events, size, event -> Cursor.encode(null, event.getId()));
+        }
+        return CursorPage.of(dtos);
     }
 
     @Override
@@ -93,29 +96,26 @@ public class EventServiceImpl implements EventService {
         Event event = EventMapper.toEvent(eventCreateDto);
 
         log.info("Добавление инициатора события");
-        User user = userRepository.findById(userId).orElseThrow(
+        UserShortDto initiator = userCache.get(userId).orElseThrow(
                 () -> new NotFoundException("Пользователь с данным id не найден")
         );
-        event.setInitiator(user);
+        event.setInitiator(userRepository.getReferenceById(userId));
 
         log.info("Добавление категории события");
-        Category category = categoryRepository.findById(eventCreateDto.getCategory()).orElseThrow(
+        CategoryDto category = categoryCache.get(eventCreateDto.getCategory()).orElseThrow(
                 () -> new NotFoundException("Категория с данным id не найдена")
         );
-        event.setCategory(category);
+        event.setCategory(categoryRepository.getReferenceById(category.getId()));
 
         log.info("Добавление локации события");
-        Location location = getOrSaveLocation(eventCreateDto.getLocation());
+        Location location = locationCache.getOrSave(eventCreateDto.getLocation());
         event.setLocation(location);
 
         event.setState(EventState.PENDING);
         event.setCreatedOn(LocalDateTime.now());
 
         event = eventRepository.save(event);
-        EventDto res = EventMapper.toEventDto(event);
-        res.setConfirmedRequests(requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED));
-
-        return res;
+        return EventMapper.toEventDto(event, category, initiator);
     }
 
     @Override
@@ -126,10 +126,7 @@ public class EventServiceImpl implements EventService {
         Event event = eventRepository.findByIdAndInitiatorId(eventId, userId).orElseThrow(
                 () -> new NotFoundException("Событие или пользователь с данным id не найдены, или событие недоступно к просмотру данным пользователем")
         );
-        EventDto res = EventMapper.toEventDto(event);
-        res.setConfirmedRequests(requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED));
-
-        return res;
+        return EventMapper.toEventDto(event);
     }
 
     @Override
@@ -177,14 +174,14 @@ public class EventServiceImpl implements EventService {
 
         if (eventUpdateDto.getCategory() != null) {
             log.info("Обновление категории события");
-            Category category = categoryRepository.findById(eventUpdateDto.getCategory()).orElseThrow(
+            CategoryDto category = categoryCache.get(eventUpdateDto.getCategory()).orElseThrow(
                     () -> new NotFoundException("Категория с данным id не найдена")
             );
-            event.setCategory(category);
+            event.setCategory(categoryRepository.getReferenceById(category.getId()));
         }
         if (eventUpdateDto.getLocation() != null) {
             log.info("Обновление локации события");
-            Location location = getOrSaveLocation(eventUpdateDto.getLocation());
+            Location location = locationCache.getOrSave(eventUpdateDto.getLocation());
             event.setLocation(location);
         }
         if (eventUpdateDto.getStateAction() != null) {
@@ -198,10 +195,14 @@ public class EventServiceImpl implements EventService {
             }
         }
         event = eventRepository.save(event);
-        EventDto res = EventMapper.toEventDto(event);
-        res.setConfirmedRequests(requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED));
+        eventPublisher.publishEvent(new EventChanged(eventId));
+        return toEventDto(event);
+    }
 
-        return res;
+    private EventDto toEventDto(Event event) {
+        return EventMapper.toEventDto(event,
+                categoryCache.get(event.getCategory().getId()).orElse(null),
+                userCache.get(event.getInitiator().getId()).orElse(null));
     }
 
     private void validateEventDate(LocalDateTime eventDate, EventState currentState) {
@@ -226,16 +227,9 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private Location getOrSaveLocation(LocationDto dto) {
-        Location location = LocationMapper.toLocation(dto);
-        return locationRepository.findFirstByLatAndLon(location.getLat(), location.getLon()).orElseGet(
-                () -> locationRepository.save(location)
-        );
-    }
-
 
     @Override
-    public List<EventShortDto> allEvents(EntityParam params, String ip) {
+    public CursorPage<EventShortDto> allEvents(EntityParam params, String ip) {
 
         if (params.getRangeStart() != null && params.getRangeEnd() != null
                 && params.getRangeStart().isAfter(params.getRangeEnd())) {
@@ -243,10 +237,35 @@ public class EventServiceImpl implements EventService {
         }
 
         BooleanExpression expression = prepareAndBuildQuery(params);
-        Pageable pageable = PageRequest.of(params.getFrom() / params.getSize(), params.getSize());
-        List<Event> events = eventRepository.findAll(expression, pageable).getContent();
+        EventSort sort = params.getSort() != null ? params.getSort() : EventSort.VIEWS;
+        boolean hasText = params.getText() != null && !params.getText().isBlank();
+        int page = params.getFrom() / params.getSize();
+        if (params.getCursor() != null) {
+            if (sort == EventSort.RELEVANCE) {
+                throw new ValidationException("Курсор не поддерживается для сортировки по релевантности");
+            }
+            Cursor cursor = Cursor.decode(params.getCursor());
+            if (!cursor.isStart()) {
+                expression = expression.and(seekAfter(sort, cursor));
+            }
+            page = 0;
+        }
+        Pageable pageable = sort == EventSort.RELEVANCE && hasText
+                ? QPageRequest.of(page, params.getSize(), relevance(params.getText()).desc(), QEvent.event.id.desc())
+                : PageRequest.of(page, params.getSize(), Sort.by(Sort.Direction.DESC, sort.getProperty(), "id"));
+        List<EventShortDto> shortDtos = eventRepository.findShortEvents(expression, pageable);
+        CursorPage<EventShortDto> result = params.getCursor() != null
+                ? CursorPage.of(shortDtos, shortDtos, params.getSize(),
+                        event -> Cursor.encode(sort == EventSort.EVENT_DATE ? event.getEventDate() : event.getViews(),
+                                event.getId()))
+                : CursorPage.of(shortDtos);
 
-        List<EventShortDto> shortDtos = buildEvents(events);
+        // страница отсортирована и разбита курсором по столбцу views, поэтому при такой сортировке показывается
+        // его значение: живые просмотры из кэша успевают уйти вперёд и нарушили бы порядок внутри страницы
+        boolean sortedByViews = sort == EventSort.VIEWS || (sort == EventSort.RELEVANCE && !hasText);
+        if (!sortedByViews) {
+            fillViews(shortDtos);
+        }
 
         EndpointHitDto hitDto = EndpointHitDto.builder()
                 .app("main-service")
@@ -256,19 +275,15 @@ public class EventServiceImpl implements EventService {
                 .build();
         client.hit(hitDto);
 
-        if (params.getSort() == EventSort.EVENT_DATE) {
-            return shortDtos.stream().sorted(Comparator.comparing(EventShortDto::getEventDate)).toList().reversed();
-        }
-
-        return shortDtos.stream().sorted(Comparator.comparing(EventShortDto::getViews)).toList().reversed();
+        return result;
     }
 
     @Override
     public EventDto eventById(Long eventId, String ip) {
+        List<Long> eventIds = List.of(eventId);
+        CompletableFuture<Map<Long, Long>> views = viewsCache.getViewsAsync(eventIds);
         Event event = checkEvent(eventId);
-        Integer countOfConfirmedInt = requestRepository.findAllByStatusAndEvent_Id(RequestStatus.CONFIRMED, eventId).size();
-        Long countOfConfirmed = countOfConfirmedInt.longValue();
-        Long countOfViews = getViews(eventId);
+        Long countOfViews = viewsCache.await(views, eventIds).getOrDefault(eventId, 0L);
 
         EndpointHitDto hitDto = EndpointHitDto.builder()
                 .app("main-service")
@@ -278,11 +293,11 @@ public class EventServiceImpl implements EventService {
                 .build();
         client.hit(hitDto);
 
-        return EventMapper.mapToDto(event, countOfConfirmed, countOfViews);
+        return EventMapper.mapToDto(event, event.getConfirmedRequests(), countOfViews);
     }
 
     private Event checkEvent(Long eventI) {
-        Event event = eventRepository.findById(eventI)
+        Event event = eventRepository.findWithDetailsById(eventI)
                 .orElseThrow(() -> new NotFoundException("Событие с id=" + eventI + " не найдено"));
 
         if (event.getState() != EventState.PUBLISHED) {
@@ -292,20 +307,30 @@ public class EventServiceImpl implements EventService {
         return event;
     }
 
-    private Long getViews(Long eventId) {
-        LocalDateTime start = LocalDateTime.now().minusYears(2);
-        LocalDateTime end = LocalDateTime.now();
-        List<String> uri = List.of("/events/" + eventId);
+    private NumberExpression<Double> relevance(String text) {
+        QEvent event = QEvent.event;
+        return wordSimilarity(text, event.title)
+                .add(wordSimilarity(text, event.annotation))
+                .add(wordSimilarity(text, event.description));
+    }
 
-        List<ViewStats> statResponse = client.getStats(start, end, uri, true).getBody();
-        if (statResponse != null && !statResponse.isEmpty()) {
-            return statResponse.getFirst().getHits();
-        }
+    private NumberExpression<Double> wordSimilarity(String text, StringPath field) {
+        return Expressions.numberTemplate(Double.class, "cast(function('word_similarity', {0}, {1}) as double)", text, field);
+    }
 
-        return 0L;
+    private BooleanExpression seekAfter(EventSort sort, Cursor cursor) {
+        QEvent event = QEvent.event;
+        if (sort == EventSort.EVENT_DATE) {
+            LocalDateTime eventDate = cursor.dateKey();
+            return event.eventDate.lt(eventDate)
+                    .or(event.eventDate.eq(eventDate).and(event.id.lt(cursor.id())));
+        }
+        long views = cursor.longKey();
+        return event.views.lt(views)
+                .or(event.views.eq(views).and(event.id.lt(cursor.id())));
     }
 
-    private BooleanExpression prepareAndBuildQuery(EntityParam param) {
+    static BooleanExpression prepareAndBuildQuery(EntityParam param) {
         QEvent event = QEvent.event;
         BooleanExpression predicate = event.state.eq(EventState.PUBLISHED);
 
@@ -332,73 +357,52 @@ public class EventServiceImpl implements EventService {
             predicate = predicate.and(event.eventDate.after(LocalDateTime.now()));
         }
 
-        if (param.getOnlyAvailable() != null && param.getOnlyAvailable()) {
-            QRequest request = QRequest.request;
-
-            Expression<Integer> confirmedRequestsCount = JPAExpressions
-                    .select(request.count().intValue())
-                    .from(request)
-                    .where(request.event.id.eq(event.id)
-                            .and(request.status.eq(RequestStatus.CONFIRMED)));
+        if (param.getLat() != null || param.getLon() != null || param.getRadius() != null) {
+            predicate = predicate.and(withinRadius(param.getLat(), param.getLon(), param.getRadius()));
+        }
 
-            predicate = predicate.and(event.participantLimit.gt(confirmedRequestsCount)
+        if (param.getOnlyAvailable() != null && param.getOnlyAvailable()) {
+            predicate = predicate.and(event.participantLimit.gt(event.confirmedRequests)
                     .or(event.participantLimit.eq(0)));
         }
 
         return predicate;
     }
 
-    private List<EventShortDto> buildEvents(List<Event> events) {
-        List<Long> eventIds = events.stream().map(Event::getId).toList();
-
-        Map<Long, Long> confirmedRequests = requestRepository
-                .countConfirmedRequestsByEvents(RequestStatus.CONFIRMED, eventIds)
-                .stream()
-                .collect(Collectors.toMap(
-                        ConfirmedRequests::getEvent,
-                        ConfirmedRequests::getCount,
-                        (count1, count2) -> count1 + count2  // ДОБАВЬТЕ ЭТО
-                ));
-
-        Map<Long, Long> views = getViewsForEvents(eventIds);
-
-
-        return events.stream().map(event -> {
-            Long confirmedR = confirmedRequests.get(event.getId());
-            Long view = views.get(event.getId());
-            return EventMapper.mapToShortDto(event, confirmedR, view);
-        }).toList();
-    }
-
-    private Map<Long, Long> getViewsForEvents(List<Long> eventIds) {
-        if (eventIds.isEmpty()) {
-            return Map.of();
+    private static BooleanExpression withinRadius(Double lat, Double lon, Double radius) {
+        if (lat == null || lon == null || radius == null) {
+            throw new ValidationException("Для поиска по расстоянию нужно указать lat, lon и radius");
         }
-
-        LocalDateTime start = LocalDateTime.now().minusYears(2);
-        LocalDateTime end = LocalDateTime.now();
-
-        List<String> uris = eventIds.stream()
-                .map(id -> "/events/" + id)
-                .toList();
-
-        List<ViewStats> statResponse = client.getStats(start, end, uris, true).getBody();
-        Map<Long, Long> viewsMap = new HashMap<>();
-
-        if (statResponse != null) {
-            for (ViewStats stats : statResponse) {
-                String uri = stats.getUri();
-                Long eventId = Long.parseLong(uri.substring(uri.lastIndexOf('/') + 1));
-                viewsMap.put(eventId, stats.getHits());
-            }
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new ValidationException("Некорректные координаты: lat=" + lat + ", lon=" + lon);
+        }
+        if (radius <= 0) {
+            throw new ValidationException("Радиус поиска должен быть положительным");
+        }
+        QLocation location = QEvent.event.location;
+        double latDelta = radius / KM_PER_DEGREE;
+        BooleanExpression box = location.lat.between((float) (lat - latDelta), (float) (lat + latDelta));
+        double lonDelta = radius / (KM_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+        if (lon - lonDelta >= -180 && lon + lonDelta <= 180) {
+            box = box.and(location.lon.between((float) (lon - lonDelta), (float) (lon + lonDelta)));
         }
+        NumberExpression<Double> distance = Expressions.numberTemplate(Double.class,
+                "2 * {0} * asin(sqrt(power(sin(radians({1} - {2}) / 2), 2)"
+                        + " + cos(radians({2})) * cos(radians({1})) * power(sin(radians({3} - {4}) / 2), 2)))",
+                EARTH_RADIUS_KM, location.lat, lat, location.lon, lon);
+        return box.and(distance.loe(radius));
+    }
 
-        return viewsMap;
+    private void fillViews(List<EventShortDto> events) {
+        List<Long> eventIds = events.stream().map(EventShortDto::getId).toList();
+        Map<Long, Long> views = viewsCache.getViews(eventIds);
+        events.forEach(event -> event.setViews(views.getOrDefault(event.getId(), 0L)));
     }
 
     @Override
-    public List<EventDto>   getEvents(List<Long> users, List<String> states, List<Long> categories,
-                                    LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size) {
+    public CursorPage<EventDto> getEvents(List<Long> users, List<String> states, List<Long> categories,
+                                          LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size,
+                                          String cursor) {
         log.info("Поиск событий с параметрами: users={}, states={}, categories={}, rangeStart={}, rangeEnd={}, from={}, size={}",
                 users, states, categories, rangeStart, rangeEnd, from, size);
 
@@ -410,31 +414,26 @@ public class EventServiceImpl implements EventService {
         List<EventState> statesParam = (eventStates != null && eventStates.isEmpty()) ? null : eventStates;
         List<Long> categoriesParam = (categories != null && categories.isEmpty()) ? null : categories;
 
-        int page = from / size;
+        int page = cursor != null ? 0 : from / size;
+        long afterId = cursor != null ? Cursor.decode(cursor).id() : 0L;
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
 
         List<Event> events = eventRepository.findEventsByAdminFilters(
-                usersParam, statesParam, categoriesParam, rangeStart, rangeEnd, pageable);
+                usersParam, statesParam, categoriesParam, rangeStart, rangeEnd, afterId, pageable);
 
         log.info("Найдено {} событий", events.size());
 
         List<Long> eventIds = events.stream().map(Event::getId).toList();
 
-        Map<Long, Long> confirmedRequests = requestRepository
-                .countConfirmedRequestsByEvents(RequestStatus.CONFIRMED, eventIds)
-                .stream()
-                .collect(Collectors.toMap(
-                        ConfirmedRequests::getEvent,
-                        ConfirmedRequests::getCount,
-                        (count1, count2) -> count1 + count2  // ДОБАВЬТЕ ЭТО
-                ));
-        Map<Long, Long> views = getViewsForEvents(eventIds);
-
-        return events.stream().map(event -> {
-            Long confirmedR = confirmedRequests.get(event.getId());
-            Long view = views.get(event.getId());
-            return EventMapper.mapToDto(event, confirmedR, view);
-        }).collect(Collectors.toList());
+        Map<Long, Long> views = viewsCache.getViews(eventIds);
+
+        List<EventDto> dtos = events.stream()
+                .map(event -> EventMapper.mapToDto(event, event.getConfirmedRequests(), views.get(event.getId())))
+                .collect(Collectors.toList());
+        if (cursor != null) {
+            return CursorPage.of(dtos, events, size, event -> Cursor.encode(null, event.getId()));
+        }
+        return CursorPage.of(dtos);
     }
 
     @Override
@@ -442,7 +441,7 @@ public class EventServiceImpl implements EventService {
     public EventDto updateEvent(Long eventId, EventAdminUpdateDto updateRequest) {
         log.info("Обновление события с id = {} администратором: {}", eventId, updateRequest);
 
-        Event event = eventRepository.findById(eventId)
+        Event event = eventRepository.findWithDetailsById(eventId)
                 .orElseThrow(() -> new NotFoundException("Событие с id = " + eventId + " не найдено"));
 
         validateEventForAdminUpdate(event, updateRequest);
@@ -454,9 +453,10 @@ public class EventServiceImpl implements EventService {
         }
 
         Event updatedEvent = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChanged(eventId));
         log.info("Событие с id = {} успешно обновлено администратором", eventId);
 
-        return EventMapper.toEventDto(updatedEvent);
+        return toEventDto(updatedEvent);
 
     }
 
@@ -553,9 +553,9 @@ public class EventServiceImpl implements EventService {
         }
 
         if (updateRequest.getCategory() != null) {
-            Category category = categoryRepository.findById(updateRequest.getCategory())
+            CategoryDto category = categoryCache.get(updateRequest.getCategory())
                     .orElseThrow(() -> new NotFoundException("Категория с id = " + updateRequest.getCategory() + " не найдена"));
-            event.setCategory(category);
+            event.setCategory(categoryRepository.getReferenceById(category.getId()));
         }
 
         if (updateRequest.getDescription() != null && !updateRequest.getDescription().isBlank()) {
@@ -567,10 +567,7 @@ public class EventServiceImpl implements EventService {
         }
 
         if (updateRequest.getLocation() != null) {
-            Location location = new Location();
-            location.setLat(updateRequest.getLocation().getLat());
-            location.setLon(updateRequest.getLocation().getLon());
-            event.setLocation(location);
+            event.setLocation(locationCache.getOrSave(updateRequest.getLocation()));
         }
 
         if (updateRequest.getPaid() != null) {
@@ -0,0 +1,66 @@
+package ru.practicum.events.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.StatClient;
+import ru.practicum.events.model.EventState;
+import ru.practicum.events.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventStatsRefresher {
+    private final EventRepository eventRepository;
+    private final StatClient client;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${events.stats.refresh-batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${events.stats.refresh-interval:PT30S}", initialDelayString = "${events.stats.refresh-interval:PT30S}")
+    public void refresh() {
+        try {
+            int views = refreshViews();
+            log.debug("Обновлены просмотры событий: {}", views);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обновить счетчики событий: {}", e.getMessage());
+        }
+    }
+
+    // столбец views нужен для сортировки публичного поиска, а он по умолчанию показывает только будущие события;
+    // просмотры загружаются напрямую из сервиса статистики, минуя кэш запросов пользователей
+    private int refreshViews() {
+        int updated = 0;
+        long afterId = 0;
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids;
+        do {
+            ids = eventRepository.findUpcomingIdsByStateAfter(EventState.PUBLISHED, now, afterId,
+                    PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> views = EventViewsCache.fetchViews(client, ids);
+            List<Object[]> args = ids.stream()
+                    .map(id -> {
+                        long count = views.getOrDefault(id, 0L);
+                        return new Object[]{count, id, count};
+                    })
+                    .toList();
+            for (int rows : jdbcTemplate.batchUpdate("UPDATE events SET views = ? WHERE id = ? AND views <> ?", args)) {
+                updated += Math.max(rows, 0);
+            }
+            afterId = ids.getLast();
+        } while (ids.size() == batchSize);
+        return updated;
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.events.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.StatClient;
+import ru.practicum.dto.ViewStats;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsCache {
+    private static final String EVENT_URI = "/events/";
+
+    private final StatClient client;
+    private final MeterRegistry meterRegistry;
+    private AsyncLoadingCache<Long, Long> cache;
+    private Cache<Long, Long> lastKnown;
+    private ExecutorService loader;
+    private Counter fallbacks;
+
+    @Value("${events.views.cache.ttl:5s}")
+    private Duration ttl;
+
+    @Value("${events.views.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${events.views.timeout:300ms}")
+    private Duration timeout;
+
+    @Value("${events.views.last-known-ttl:1h}")
+    private Duration lastKnownTtl;
+
+    @Value("${events.views.loader-threads:8}")
+    private int loaderThreads;
+
+    @Value("${events.views.loader-queue:100}")
+    private int loaderQueue;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @PostConstruct
+    public void init() {
+        // пул ограничивает число одновременных запросов к сервису статистики и на виртуальных потоках
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        loader = new ThreadPoolExecutor(loaderThreads, loaderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(loaderQueue), threads.name("event-views-loader-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, loader, "eventViewsLoader");
+        fallbacks = meterRegistry.counter("ewm.views.fallback");
+        lastKnown = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(lastKnownTtl)
+                .build();
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(loader)
+                .recordStats()
+                .buildAsync(new CacheLoader<>() {
+                    @Override
+                    public Long load(Long eventId) {
+                        return loadViews(List.of(eventId)).getOrDefault(eventId, 0L);
+                    }
+
+                    @Override
+                    public Map<Long, Long> loadAll(Set<? extends Long> eventIds) {
+                        return loadViews(eventIds);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "eventViews");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    public CompletableFuture<Map<Long, Long>> getViewsAsync(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        try {
+            return cache.getAll(eventIds);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public Map<Long, Long> await(CompletableFuture<Map<Long, Long>> views, Collection<Long> eventIds) {
+        try {
+            return views.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Сервис статистики не ответил за {} мс, используются сохраненные просмотры", timeout.toMillis());
+        } catch (ExecutionException e) {
+            log.warn("Не удалось получить просмотры, используются сохраненные: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fallbacks.increment();
+        return lastKnown.getAllPresent(eventIds);
+    }
+
+    public Long getViews(Long eventId) {
+        return getViews(List.of(eventId)).getOrDefault(eventId, 0L);
+    }
+
+    public Map<Long, Long> getViews(Collection<Long> eventIds) {
+        return await(getViewsAsync(eventIds), eventIds);
+    }
+
+    private Map<Long, Long> loadViews(Collection<? extends Long> eventIds) {
+        Map<Long, Long> views = fetchViews(client, eventIds);
+        lastKnown.putAll(views);
+        log.debug("Загружены просмотры для {} событий", eventIds.size());
+        return views;
+    }
+
+    static Map<Long, Long> fetchViews(StatClient client, Collection<? extends Long> eventIds) {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = end.minusYears(2);
+        List<String> uris = eventIds.stream()
+                .map(id -> EVENT_URI + id)
+                .toList();
+        return toViews(eventIds, client.getStats(start, end, uris, true).getBody());
+    }
+
+    static Map<Long, Long> toViews(Collection<? extends Long> eventIds, List<ViewStats> statResponse) {
+        Map<Long, Long> views = new HashMap<>();
+        eventIds.forEach(id -> views.put(id, 0L));
+        if (statResponse != null) {
+            for (ViewStats stats : statResponse) {
+                String uri = stats.getUri();
+                views.put(Long.parseLong(uri.substring(uri.lastIndexOf('/') + 1)), stats.getHits());
+            }
+        }
+        return views;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.events.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.events.dto.LocationDto;
+import ru.practicum.events.model.Location;
+import ru.practicum.events.repository.LocationRepository;
+
+@Component
+@RequiredArgsConstructor
+public class LocationCache {
+    private final LocationRepository repository;
+    private final MeterRegistry meterRegistry;
+    private Cache<Key, Location> cache;
+
+    @Value("${locations.cache.max-size:10000}")
+    private long maxSize;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "locations");
+    }
+
+    public Location getOrSave(LocationDto dto) {
+        Key key = new Key(dto.getLat(), dto.getLon());
+        Location location = cache.getIfPresent(key);
+        if (location != null) {
+            return location;
+        }
+        boolean inserted = repository.insertIfAbsent(dto.getLat(), dto.getLon()) > 0;
+        location = repository.findFirstByLatAndLon(dto.getLat(), dto.getLon()).orElseThrow();
+        // только что вставленная строка может откатиться вместе с транзакцией, поэтому кэшируются лишь существующие
+        if (!inserted) {
+            cache.put(key, location);
+        }
+        return location;
+    }
+
+    private record Key(Float lat, Float lon) {
+    }
+}
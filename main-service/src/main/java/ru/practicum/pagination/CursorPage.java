@@ -0,0 +1,27 @@
+package ru.practicum.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> content, String next) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static <T> CursorPage<T> of(List<T> content) {
+        return new CursorPage<>(content, null);
+    }
+
+    public static <T, E> CursorPage<T> of(List<T> content, List<E> source, int size, Function<E, String> cursor) {
+        String next = !source.isEmpty() && source.size() == size ? cursor.apply(source.getLast()) : null;
+        return new CursorPage<>(content, next);
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (next != null) {
+            builder.header(NEXT_CURSOR_HEADER, next);
+        }
+        return builder.body(content);
+    }
+}
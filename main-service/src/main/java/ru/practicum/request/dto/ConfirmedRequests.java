@@ -1,13 +0,0 @@
-package ru.practicum.request.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.Setter;
-
-@AllArgsConstructor
-@Getter
-@Setter
-public class ConfirmedRequests {
-    private long count;
-    private Long event;
-}
@@ -5,7 +5,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
-import ru.practicum.request.dto.ConfirmedRequests;
+import ru.practicum.request.dto.ParticipationRequestDto;
 import ru.practicum.request.model.Request;
 import ru.practicum.request.model.RequestStatus;
 
@@ -13,40 +13,47 @@ import java.util.List;
 import java.util.Optional;
 
 public interface RequestRepository extends JpaRepository<Request, Long>, QuerydslPredicateExecutor<Request> {
-    @Query("""
-        SELECT new ru.practicum.request.dto.ConfirmedRequests(COUNT(DISTINCT r.id), r.event.id)
-        FROM Request AS r
-        WHERE r.event.id IN (:ids)
-        AND r.status = :status
-        GROUP BY r.event.id
-        """)
-    List<ConfirmedRequests> findAllByEventIdInAndStatus(@Param("ids") List<Long> ids,
-                                                        @Param("status") RequestStatus status);
-
-    List<Request> findAllByStatusAndEvent_Id(RequestStatus status, Long eventId);
-
-    Long countByEventIdAndStatus(Long eventId, RequestStatus status);
-
-    @Query("SELECT new ru.practicum.request.dto.ConfirmedRequests(COUNT(r), r.event.id) " +
-            "FROM Request r " +
-            "WHERE r.status = :status AND r.event.id IN :eventIds " +
-            "GROUP BY r.event.id")
-    List<ConfirmedRequests> countConfirmedRequestsByEvents(@Param("status") RequestStatus status,
-                                                           @Param("eventIds") List<Long> eventIds);
-
-
-
     List<Request> findAllByEventId(Long eventId);
 
-    List<Request> findAllByIdIn(List<Long> ids);
-
     List<Request> findAllByRequesterId(Long requesterId);
 
     Optional<Request> findByIdAndRequesterId(Long requestId, Long requesterId);
 
     Boolean existsByRequesterIdAndEventId(Long userId, Long eventId);
 
+    boolean existsByEventIdAndIdInAndStatusNot(Long eventId, List<Long> ids, RequestStatus status);
+
+    @Modifying
+    @Query(value = """
+        UPDATE requests
+        SET status = 'CONFIRMED'
+        WHERE id IN (
+            SELECT id FROM requests
+            WHERE event_id = :eventId
+            AND id IN (:ids)
+            AND status = 'PENDING'
+            ORDER BY id
+            LIMIT :limit)
+        """, nativeQuery = true)
+    int confirmPending(@Param("eventId") Long eventId, @Param("ids") List<Long> ids, @Param("limit") int limit);
+
     @Modifying
-    @Query("UPDATE Request r SET r.status = :status WHERE r.id IN :ids")
-    int updateStatusByIds(@Param("ids") List<Long> ids, @Param("status") RequestStatus status);
+    @Query("""
+        UPDATE Request r SET r.status = :status
+        WHERE r.event.id = :eventId
+        AND r.id IN :ids
+        AND r.status = ru.practicum.request.model.RequestStatus.PENDING
+        """)
+    int updatePendingStatus(@Param("eventId") Long eventId,
+                            @Param("ids") List<Long> ids,
+                            @Param("status") RequestStatus status);
+
+    @Query("""
+        SELECT new ru.practicum.request.dto.ParticipationRequestDto(r.id, r.event.id, r.requester.id, r.createdOn, r.status)
+        FROM Request r
+        WHERE r.event.id = :eventId
+        AND r.id IN :ids
+        ORDER BY r.id
+        """)
+    List<ParticipationRequestDto> findDtoByEventIdAndIdIn(@Param("eventId") Long eventId, @Param("ids") List<Long> ids);
 }
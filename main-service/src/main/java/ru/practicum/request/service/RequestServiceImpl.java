@@ -1,12 +1,15 @@
 package ru.practicum.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.events.model.Event;
 import ru.practicum.events.model.EventState;
 import ru.practicum.events.repository.EventRepository;
+import ru.practicum.events.service.EventChanged;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.RequestConflictException;
 import ru.practicum.exception.ValidationException;
@@ -19,6 +22,7 @@ import ru.practicum.request.model.RequestStatus;
 import ru.practicum.request.repository.RequestRepository;
 import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
+import ru.practicum.user.service.UserShortCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -26,12 +30,15 @@ import java.util.List;
 
 @Slf4j
 @Service
+@Timed("ewm.service")
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserShortCache userCache;
 
     @Override
     public List<ParticipationRequestDto> getUserEventRequests(Long userId, Long eventId) {
@@ -54,7 +61,7 @@ public class RequestServiceImpl implements RequestService {
             throw new ValidationException("Id должен быть указан");
         }
 
-        Event event = eventRepository.findByIdAndInitiatorId(eventId, userId).orElseThrow(
+        Event event = eventRepository.findByIdAndInitiatorIdForUpdate(eventId, userId).orElseThrow(
                 () -> new NotFoundException("Событие или пользователь с данным id не найдены, или событие недоступно к просмотру данным пользователем")
         );
 
@@ -63,56 +70,38 @@ public class RequestServiceImpl implements RequestService {
             return new EventRequestStatusUpdateResult(List.of(), List.of());
         }
 
-        Long confirmedRequests = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
+        long confirmedRequests = event.getConfirmedRequests();
 
         if (event.getParticipantLimit() > 0 && confirmedRequests >= event.getParticipantLimit()) {
             throw new RequestConflictException("Уже достигнут лимит по заявкам на данное событие");
         }
 
-        List<Request> requests = requestRepository.findAllByIdIn(dto.getRequestIds());
-
-        if (!requests.stream()
-                .map(Request::getStatus)
-                .allMatch(RequestStatus.PENDING::equals)) {
-            throw new RequestConflictException("Статус можно изменить только у заявок, находящихся в состоянии ожидания");
+        List<Long> requestIds = dto.getRequestIds();
+        if (requestIds == null || requestIds.isEmpty()) {
+            return new EventRequestStatusUpdateResult(List.of(), List.of());
         }
 
-        List<ParticipationRequestDto> confirmed = new ArrayList<>();
-        List<ParticipationRequestDto> rejected = new ArrayList<>();
-
-        if (dto.getStatus().equals(RequestStatus.REJECTED)) {
-            requests.forEach(request -> request.setStatus(RequestStatus.REJECTED));
-            List<Request> updatedRequests = requestRepository.saveAll(requests);
-            rejected = updatedRequests.stream()
-                    .map(RequestMapper::toParticipationRequestDto)
-                    .toList();
-            return new EventRequestStatusUpdateResult(confirmed, rejected);
+        if (requestRepository.existsByEventIdAndIdInAndStatusNot(eventId, requestIds, RequestStatus.PENDING)) {
+            throw new RequestConflictException("Статус можно изменить только у заявок, находящихся в состоянии ожидания");
         }
 
-        int limit = event.getParticipantLimit() == 0 ? Integer.MAX_VALUE : event.getParticipantLimit();
-        int availableSlots = limit - confirmedRequests.intValue();
-
-        for (int i = 0; i < requests.size(); i++) {
-            Request request = requests.get(i);
-            if (i < availableSlots) {
-                request.setStatus(RequestStatus.CONFIRMED);
-                confirmed.add(RequestMapper.toParticipationRequestDto(request));
-            } else {
-                request.setStatus(RequestStatus.REJECTED);
-                rejected.add(RequestMapper.toParticipationRequestDto(request));
+        if (dto.getStatus().equals(RequestStatus.CONFIRMED)) {
+            int availableSlots = event.getParticipantLimit() - (int) confirmedRequests;
+            int confirmedCount = requestRepository.confirmPending(eventId, requestIds, availableSlots);
+            if (confirmedCount > 0) {
+                eventRepository.reserveSlots(eventId, confirmedCount);
+                eventPublisher.publishEvent(new EventChanged(eventId));
             }
         }
+        requestRepository.updatePendingStatus(eventId, requestIds, RequestStatus.REJECTED);
 
-        List<Request> updatedRequests = requestRepository.saveAll(requests);
-
-        confirmed.clear();
-        rejected.clear();
-        for (Request request : updatedRequests) {
-            ParticipationRequestDto dtoResult = RequestMapper.toParticipationRequestDto(request);
+        List<ParticipationRequestDto> confirmed = new ArrayList<>();
+        List<ParticipationRequestDto> rejected = new ArrayList<>();
+        for (ParticipationRequestDto request : requestRepository.findDtoByEventIdAndIdIn(eventId, requestIds)) {
             if (request.getStatus() == RequestStatus.CONFIRMED) {
-                confirmed.add(dtoResult);
+                confirmed.add(request);
             } else if (request.getStatus() == RequestStatus.REJECTED) {
-                rejected.add(dtoResult);
+                rejected.add(request);
             }
         }
 
@@ -136,7 +125,7 @@ public class RequestServiceImpl implements RequestService {
         Event event = eventRepository.findById(eventId).orElseThrow(
                 () -> new NotFoundException("Событие с данным id не найдено")
         );
-        User user = userRepository.findById(userId).orElseThrow(
+        userCache.get(userId).orElseThrow(
                 () -> new NotFoundException("Пользователь с данным id не найден")
         );
 
@@ -152,22 +141,21 @@ public class RequestServiceImpl implements RequestService {
             throw new RequestConflictException("Нельзя участвовать в неопубликованном событии");
         }
 
-        if (event.getParticipantLimit() > 0) {
-            Long confirmedRequests = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-
-            if (confirmedRequests >= event.getParticipantLimit()) {
-                throw new RequestConflictException("Уже достигнут лимит по заявкам на данное событие");
-            }
-        }
-
         Request request = new Request();
         request.setEvent(event);
-        request.setRequester(user);
+        request.setRequester(userRepository.getReferenceById(userId));
         request.setCreatedOn(LocalDateTime.now());
 
         if (!event.getRequestModeration() || event.getParticipantLimit() == 0) {
+            if (eventRepository.reserveSlots(eventId, 1) == 0) {
+                throw new RequestConflictException("Уже достигнут лимит по заявкам на данное событие");
+            }
+            eventPublisher.publishEvent(new EventChanged(eventId));
             request.setStatus(RequestStatus.CONFIRMED);
         } else {
+            if (event.getConfirmedRequests() >= event.getParticipantLimit()) {
+                throw new RequestConflictException("Уже достигнут лимит по заявкам на данное событие");
+            }
             request.setStatus(RequestStatus.PENDING);
         }
 
@@ -180,6 +168,10 @@ public class RequestServiceImpl implements RequestService {
     public ParticipationRequestDto cancelRequest(Long userId, Long requestId) {
         Request request = requestRepository.findByIdAndRequesterId(requestId, userId)
                 .orElseThrow(() -> new NotFoundException("Запрос не найден или недоступен данному пользователю"));
+        if (request.getStatus() == RequestStatus.CONFIRMED) {
+            eventRepository.releaseSlots(request.getEvent().getId(), 1);
+            eventPublisher.publishEvent(new EventChanged(request.getEvent().getId()));
+        }
         request.setStatus(RequestStatus.CANCELED);
         request = requestRepository.save(request);
         return RequestMapper.toParticipationRequestDto(request);
@@ -10,4 +10,5 @@ public class UserRequest {
     private List<Long> ids;
     private Integer from;
     private Integer size;
+    private String cursor;
 }
@@ -16,6 +16,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Page<User> findByIdIn(List<Long> ids, Pageable pageable);
 
+    List<User> findByIdGreaterThan(Long id, Pageable pageable);
+
+    List<User> findByIdInAndIdGreaterThan(List<Long> ids, Long id, Pageable pageable);
+
     @Modifying
     @Query("DELETE FROM User u WHERE u.id = :id")
     int deleteByIdAndReturnCount(@Param("id") Long id);
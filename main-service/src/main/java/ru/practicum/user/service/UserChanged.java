@@ -0,0 +1,4 @@
+package ru.practicum.user.service;
+
+public record UserChanged(Long userId) {
+}
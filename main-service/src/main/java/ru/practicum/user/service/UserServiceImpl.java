@@ -1,12 +1,16 @@
 package ru.practicum.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.Cursor;
+import ru.practicum.pagination.CursorPage;
 import ru.practicum.user.dto.NewUserRequest;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.dto.UserRequest;
@@ -22,17 +26,29 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<UserDto> getUsers(UserRequest request) {
+    public CursorPage<UserDto> getUsers(UserRequest request) {
+        boolean allUsers = request.getIds() == null || request.getIds().isEmpty();
+
+        if (request.getCursor() != null) {
+            Cursor cursor = Cursor.decode(request.getCursor());
+            Pageable pageable = PageRequest.of(0, request.getSize(), Sort.by("id"));
+            List<User> users = allUsers
+                    ? userRepository.findByIdGreaterThan(cursor.id(), pageable)
+                    : userRepository.findByIdInAndIdGreaterThan(request.getIds(), cursor.id(), pageable);
+            return CursorPage.of(users.stream().map(UserMapper::toUserDto).toList(), users, request.getSize(),
+                    user -> Cursor.encode(null, user.getId()));
+        }
 
         Pageable pageable = PageRequest.of(request.getFrom(), request.getSize());
 
-        Page<User> userPage = (request.getIds() == null || request.getIds().isEmpty())
+        Page<User> userPage = allUsers
                 ? userRepository.findAll(pageable)
                 : userRepository.findByIdIn(request.getIds(), pageable);
 
-        return userPage.map(UserMapper::toUserDto).getContent();
+        return CursorPage.of(userPage.map(UserMapper::toUserDto).getContent());
     }
 
     @Override
@@ -53,5 +69,6 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException("Пользователь с Id " + userId + " не найден"));
 
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChanged(userId));
     }
 }
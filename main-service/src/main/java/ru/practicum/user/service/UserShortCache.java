@@ -0,0 +1,52 @@
+package ru.practicum.user.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.user.dto.UserShortDto;
+import ru.practicum.user.mapper.UserMapper;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class UserShortCache {
+    private final UserRepository repository;
+    private final MeterRegistry meterRegistry;
+    private LoadingCache<Long, UserShortDto> cache;
+
+    @Value("${users.cache.ttl:1h}")
+    private Duration ttl;
+
+    @Value("${users.cache.max-size:10000}")
+    private long maxSize;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(userId -> repository.findById(userId)
+                        .map(UserMapper::toUserShortDto)
+                        .orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<UserShortDto> get(Long userId) {
+        return Optional.ofNullable(cache.get(userId));
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChanged changed) {
+        cache.invalidate(changed.userId());
+    }
+}
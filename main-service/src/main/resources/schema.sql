@@ -1,3 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name VARCHAR(250) NOT NULL,
@@ -29,15 +31,52 @@ CREATE TABLE IF NOT EXISTS events (
     state VARCHAR(20) NOT NULL,
     initiator_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
     published_at TIMESTAMP WITHOUT TIME ZONE,
-    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    views BIGINT NOT NULL DEFAULT 0,
+    confirmed_requests BIGINT NOT NULL DEFAULT 0
 );
 
+ALTER TABLE events ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS confirmed_requests BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    name VARCHAR(64) PRIMARY KEY,
+    applied_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+UPDATE events AS e
+SET location_id = d.keep_id
+FROM (SELECT id, MIN(id) OVER (PARTITION BY lat, lon) AS keep_id FROM locations) AS d
+WHERE e.location_id = d.id
+AND d.id <> d.keep_id
+AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'locations_dedup');
+
+DELETE FROM locations AS l
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'locations_dedup')
+AND EXISTS (SELECT 1 FROM locations AS k WHERE k.lat = l.lat AND k.lon = l.lon AND k.id < l.id);
+
+INSERT INTO schema_migrations (name, applied_at) VALUES ('locations_dedup', localtimestamp) ON CONFLICT DO NOTHING;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_locations_lat_lon ON locations (lat, lon);
+CREATE INDEX IF NOT EXISTS idx_locations_lon_lat ON locations (lon, lat);
+
+CREATE INDEX IF NOT EXISTS idx_events_state_views ON events (state, views DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events (state, event_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_initiator ON events (initiator_id, id);
+CREATE INDEX IF NOT EXISTS idx_events_location ON events (location_id);
+DROP INDEX IF EXISTS idx_events_annotation_trgm;
+DROP INDEX IF EXISTS idx_events_description_trgm;
+CREATE INDEX IF NOT EXISTS idx_events_annotation_lower_trgm ON events USING GIN (lower(annotation) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_description_lower_trgm ON events USING GIN (lower(description) gin_trgm_ops);
+
 CREATE TABLE IF NOT EXISTS compilations (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     pinned BOOLEAN DEFAULT FALSE NOT NULL,
     title VARCHAR(50) UNIQUE NOT NULL
 );
 
+CREATE INDEX IF NOT EXISTS idx_compilations_pinned ON compilations (pinned, id);
+
 CREATE TABLE IF NOT EXISTS compilations_events (
     compilation_id BIGINT REFERENCES compilations (id) ON DELETE CASCADE NOT NULL,
     event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE
@@ -49,4 +88,17 @@ CREATE TABLE IF NOT EXISTS requests (
     requester_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
     created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     status VARCHAR(20) NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_event_status ON requests (event_id, status);
+UPDATE events AS e
+SET confirmed_requests = COALESCE(c.cnt, 0)
+FROM events AS src
+LEFT JOIN (SELECT event_id, COUNT(*) AS cnt FROM requests WHERE status = 'CONFIRMED' GROUP BY event_id) AS c
+ON c.event_id = src.id
+WHERE e.id = src.id
+AND e.confirmed_requests <> COALESCE(c.cnt, 0)
+AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = 'events_confirmed_requests');
+
+INSERT INTO schema_migrations (name, applied_at) VALUES ('events_confirmed_requests', localtimestamp)
+ON CONFLICT DO NOTHING;
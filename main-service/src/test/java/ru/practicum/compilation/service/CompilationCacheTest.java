@@ -0,0 +1,93 @@
+package ru.practicum.compilation.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.compilation.dto.CompilationDto;
+import ru.practicum.events.dto.EventShortDto;
+import ru.practicum.events.service.EventChanged;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompilationCacheTest {
+    private static final long COMP_ID = 1L;
+    private static final long EVENT_ID = 10L;
+
+    private CompilationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompilationCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        cache.init();
+    }
+
+    @Test
+    void loadOverlappingInvalidationIsNotCached() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        // Загрузка успевает прочитать старое состояние, а событие меняется до того, как она попадёт в кэш
+        CompletableFuture<CompilationDto> stale = CompletableFuture.supplyAsync(() -> cache.get(COMP_ID, id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(invalidated);
+            return compilation("old");
+        }));
+        await(loading);
+        cache.onEventChanged(new EventChanged(EVENT_ID));
+        invalidated.countDown();
+
+        assertThat(stale.get().getTitle()).isEqualTo("old");
+        CompilationDto fresh = cache.get(COMP_ID, id -> {
+            loads.incrementAndGet();
+            return compilation("new");
+        });
+
+        assertThat(fresh.getTitle()).isEqualTo("new");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadWithoutInvalidationIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(COMP_ID, id -> {
+            loads.incrementAndGet();
+            return compilation("old");
+        });
+        CompilationDto cached = cache.get(COMP_ID, id -> {
+            loads.incrementAndGet();
+            return compilation("new");
+        });
+
+        assertThat(cached.getTitle()).isEqualTo("old");
+        assertThat(loads).hasValue(1);
+    }
+
+    private static CompilationDto compilation(String title) {
+        return CompilationDto.builder()
+                .id(COMP_ID)
+                .title(title)
+                .events(List.of(EventShortDto.builder().id(EVENT_ID).build()))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
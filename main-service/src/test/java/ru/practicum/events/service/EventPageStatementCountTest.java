@@ -0,0 +1,136 @@
+package ru.practicum.events.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.MainService;
+import ru.practicum.events.dto.EntityParam;
+import ru.practicum.events.mapper.EventMapper;
+import ru.practicum.events.model.Event;
+import ru.practicum.events.repository.EventRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(classes = MainService.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EventPageStatementCountTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    private static final long INITIATOR_ID = 1L;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        // У каждого события свои категория и локация, первые 40 событий у одного инициатора, остальные у разных:
+        // любая ленивая подгрузка связи сразу даст лишние запросы пропорционально размеру страницы
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email)
+                SELECT 'user ' || g, 'user' || g || '@mail.ru' FROM generate_series(1, 41) AS g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO categories (category_name) SELECT 'category ' || g FROM generate_series(1, 80) AS g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO locations (lat, lon) SELECT 50 + g * 0.01, 30 + g * 0.01 FROM generate_series(1, 80) AS g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO events (title, annotation, category_id, description, event_date, location_id, state,
+                                    initiator_id, published_at, created_at)
+                SELECT 'event ' || g, 'annotation ' || g, g, 'description ' || g,
+                       localtimestamp + g * interval '1 day', g, 'PUBLISHED',
+                       CASE WHEN g <= 40 THEN 1 ELSE g - 39 END, localtimestamp, localtimestamp
+                FROM generate_series(1, 80) AS g
+                """);
+    }
+
+    @BeforeEach
+    void setUp(@Autowired EntityManagerFactory entityManagerFactory) {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20})
+    void publicPageIsSingleStatement(int size) {
+        long statements = countStatements(() -> {
+            EntityParam param = EntityParam.builder().build();
+            assertThat(eventRepository.findShortEvents(EventServiceImpl.prepareAndBuildQuery(param),
+                    PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "views", "id"))))
+                    .hasSize(size)
+                    .allSatisfy(event -> assertThat(event.getCategory().getName()).isNotNull());
+        });
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20})
+    void adminPageIsSingleStatement(int size) {
+        long statements = countStatements(() -> {
+            List<Event> events = eventRepository.findEventsByAdminFilters(null, null, null, null, null, 0L,
+                    PageRequest.of(0, size, Sort.by("id")));
+            assertThat(events).hasSize(size);
+            events.forEach(event -> EventMapper.mapToDto(event, null, null));
+        });
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20})
+    void initiatorKeysetPageIsSingleStatement(int size) {
+        long statements = countStatements(() -> {
+            List<Event> events = eventRepository.findAllByInitiatorIdAndIdGreaterThan(INITIATOR_ID, 0L,
+                    PageRequest.of(0, size, Sort.by("id")));
+            assertThat(events).hasSize(size);
+            events.forEach(event -> EventMapper.mapToShortDto(event, null, null));
+        });
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20})
+    void initiatorOffsetPageIsSelectAndCount(int size) {
+        long statements = countStatements(() -> {
+            List<Event> events = eventRepository.findAllByInitiatorId(INITIATOR_ID,
+                    PageRequest.of(0, size, Sort.by("id"))).getContent();
+            assertThat(events).hasSize(size);
+            events.forEach(event -> EventMapper.mapToShortDto(event, null, null));
+        });
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    // Маппинг выполняется внутри транзакции, чтобы ленивые связи подгружались запросами, а не падали
+    private long countStatements(Runnable work) {
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> work.run());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.events.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.MainService;
+import ru.practicum.events.dto.EntityParam;
+import ru.practicum.events.dto.EventShortDto;
+import ru.practicum.events.repository.EventRepository;
+import ru.practicum.metrics.QueryCounter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(classes = MainService.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class EventTextSearchPlanTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    private static final String TEXT = "JAZZ festival";
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private QueryCounter queryCounter;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('user', 'user@mail.ru')");
+        jdbcTemplate.update("INSERT INTO categories (category_name) VALUES ('category')");
+        jdbcTemplate.update("INSERT INTO locations (lat, lon) VALUES (55.75, 37.61)");
+        // 30 тысяч событий со случайным текстом, искомая фраза в разном регистре только у 20 из них
+        jdbcTemplate.update("""
+                INSERT INTO events (title, annotation, category_id, description, event_date, location_id, state,
+                                    initiator_id, published_at, created_at)
+                SELECT 'event ' || g,
+                       md5(g::text) || CASE WHEN g % 1500 = 0 THEN ' Jazz Festival ' ELSE ' ' END || md5((g + 1)::text),
+                       1, md5((g + 2)::text) || ' ' || md5((g + 3)::text) || ' ' || md5((g + 4)::text),
+                       localtimestamp + (g % 365) * interval '1 day', 1, 'PUBLISHED', 1, localtimestamp, localtimestamp
+                FROM generate_series(1, 30000) AS g
+                """);
+        jdbcTemplate.execute("VACUUM ANALYZE events");
+    }
+
+    @Test
+    void textSearchUsesLowerTrigramIndexes() {
+        EntityParam param = EntityParam.builder().text(TEXT).build();
+        List<EventShortDto> events = eventRepository.findShortEvents(EventServiceImpl.prepareAndBuildQuery(param),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "views", "id")));
+        assertThat(events).hasSize(10);
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(queryCounter, atLeastOnce()).inspect(statements.capture());
+        String sql = statements.getAllValues().stream()
+                .filter(statement -> statement.contains(" like "))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        assertThat(sql).contains("lower(e1_0.annotation) like ?", "lower(e1_0.description) like ?");
+
+        String pattern = "%" + TEXT.toLowerCase() + "%";
+        Object[] parameters = {"PUBLISHED", pattern, pattern, Timestamp.valueOf(LocalDateTime.now()), 0, 10};
+        assertThat(sql.chars().filter(c -> c == '?').count()).isEqualTo(parameters.length);
+        List<String> plan = new ArrayList<>();
+        jdbcTemplate.query("EXPLAIN " + sql, rs -> {
+            plan.add(rs.getString(1));
+        }, parameters);
+
+        String text = String.join("\n", plan);
+        assertThat(text).as(text).contains("idx_events_annotation_lower_trgm", "idx_events_description_lower_trgm");
+    }
+}
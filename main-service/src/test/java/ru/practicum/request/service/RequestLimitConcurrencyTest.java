@@ -0,0 +1,165 @@
+package ru.practicum.request.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.MainService;
+import ru.practicum.exception.RequestConflictException;
+import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.model.RequestStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+// Журналирование SQL и транзакций из application.properties пишет в консоль синхронно и само становится узким местом.
+// Сотни потоков заведомо больше пула соединений, поэтому ожидание соединения не ограничивается 5 секундами,
+// как в рабочей конфигурации: тест проверяет лимит и пропускную способность, а не отказ при перегрузке пула
+@SpringBootTest(classes = MainService.class, webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.hikari.connection-timeout=60000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "logging.level.org.springframework.transaction.interceptor=INFO",
+        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO"})
+class RequestLimitConcurrencyTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    private static final long INITIATOR_ID = 1L;
+    private static final int ROUNDS = 5;
+    private static final long MODERATED_EVENT_ID = ROUNDS + 1;
+    private static final int REQUESTERS = 400;
+    private static final int LIMIT = 50;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email)
+                SELECT 'user ' || g, 'user' || g || '@mail.ru' FROM generate_series(1, ?) AS g
+                """, REQUESTERS + 1);
+        jdbcTemplate.update("INSERT INTO categories (category_name) VALUES ('category')");
+        jdbcTemplate.update("INSERT INTO locations (lat, lon) VALUES (55.75, 37.61)");
+        // События 1..ROUNDS подтверждают заявки сразу, последнее — только после модерации инициатором
+        jdbcTemplate.update("""
+                INSERT INTO events (title, annotation, category_id, description, event_date, location_id, state,
+                                    initiator_id, participant_limit, request_moderation, published_at, created_at)
+                SELECT 'event ' || g, 'annotation', 1, 'description', localtimestamp + interval '1 day', 1,
+                       'PUBLISHED', ?, ?, g = ?, localtimestamp, localtimestamp
+                FROM generate_series(1, ?) AS g
+                """, INITIATOR_ID, LIMIT, MODERATED_EVENT_ID, MODERATED_EVENT_ID);
+    }
+
+    // Несколько раундов подряд, каждый по новому событию: лимит соблюдается в каждом раунде, а пропускная способность
+    // после первого, прогревочного, раунда не проседает от раунда к раунду
+    @Test
+    void concurrentRequestsWithoutModerationConfirmExactlyLimit() throws Exception {
+        List<Double> throughput = new ArrayList<>();
+        for (long eventId = 1; eventId <= ROUNDS; eventId++) {
+            long event = eventId;
+            long started = System.nanoTime();
+            List<Boolean> results = runConcurrently(REQUESTERS, i -> () -> {
+                try {
+                    requestService.addRequest(INITIATOR_ID + 1 + i, event);
+                    return true;
+                } catch (RequestConflictException e) {
+                    return false;
+                }
+            });
+            double seconds = (System.nanoTime() - started) / (double) TimeUnit.SECONDS.toNanos(1);
+            if (event > 1) {
+                throughput.add(REQUESTERS / seconds);
+            }
+            log.info("Раунд {}: {} заявок за {} мс, {} оп/с", event, REQUESTERS, Math.round(seconds * 1000),
+                    Math.round(REQUESTERS / seconds));
+
+            assertThat(results).filteredOn(Boolean::booleanValue).hasSize(LIMIT);
+            assertConfirmed(event);
+        }
+
+        double slowest = throughput.stream().mapToDouble(Double::doubleValue).min().orElseThrow();
+        double fastest = throughput.stream().mapToDouble(Double::doubleValue).max().orElseThrow();
+        assertThat(slowest).as("пропускная способность по раундам: %s", throughput).isGreaterThan(fastest / 3);
+    }
+
+    @Test
+    void concurrentConfirmationsConfirmExactlyLimit() throws Exception {
+        List<ParticipationRequestDto> pending = runConcurrently(REQUESTERS,
+                i -> () -> requestService.addRequest(INITIATOR_ID + 1 + i, MODERATED_EVENT_ID));
+        assertThat(pending).extracting(ParticipationRequestDto::getStatus).containsOnly(RequestStatus.PENDING);
+
+        // Каждая заявка подтверждается отдельным вызовом, все вызовы идут одновременно
+        long started = System.nanoTime();
+        List<Integer> confirmed = runConcurrently(REQUESTERS, i -> () -> {
+            EventRequestStatusUpdateRequest update = new EventRequestStatusUpdateRequest(
+                    List.of(pending.get(i).getId()), RequestStatus.CONFIRMED);
+            try {
+                return requestService.updateUserEventRequests(INITIATOR_ID, MODERATED_EVENT_ID, update)
+                        .getConfirmedRequests().size();
+            } catch (RequestConflictException e) {
+                return 0;
+            }
+        });
+        log.info("{} подтверждений за {} мс", REQUESTERS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        assertThat(confirmed.stream().mapToInt(Integer::intValue).sum()).isEqualTo(LIMIT);
+        assertConfirmed(MODERATED_EVENT_ID);
+    }
+
+    private void assertConfirmed(long eventId) {
+        Long confirmed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM requests WHERE event_id = ? AND status = 'CONFIRMED'", Long.class, eventId);
+        Long counter = jdbcTemplate.queryForObject(
+                "SELECT confirmed_requests FROM events WHERE id = ?", Long.class, eventId);
+        assertThat(confirmed).isEqualTo(LIMIT);
+        assertThat(counter).isEqualTo(LIMIT);
+    }
+
+    private static <T> List<T> runConcurrently(int count, Function<Integer, Callable<T>> tasks)
+            throws InterruptedException, ExecutionException {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(count)) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Callable<T> task = tasks.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+}
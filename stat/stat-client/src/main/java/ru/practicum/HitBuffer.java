@@ -0,0 +1,328 @@
+package ru.practicum;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.dto.EndpointHitDto;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+@Slf4j
+public class HitBuffer implements AutoCloseable {
+    private static final String SPILL_FILE = "stat-hits.ndjson";
+    private static final String REPLAY_FILE = "stat-hits.replay";
+    private static final String PROGRESS_FILE = "stat-hits.replay.progress";
+
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final HitOverflowPolicy policy;
+    private final Duration blockTimeout;
+    private final Path spillDir;
+    private final Consumer<List<EndpointHitDto>> sender;
+    private final ObjectMapper mapper;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong corrupted = new AtomicLong();
+
+    public HitBuffer(int capacity,
+                     int batchSize,
+                     Duration flushInterval,
+                     HitOverflowPolicy policy,
+                     Duration blockTimeout,
+                     Path spillDir,
+                     Consumer<List<EndpointHitDto>> sender,
+                     ObjectMapper mapper) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.policy = policy;
+        this.blockTimeout = blockTimeout;
+        this.spillDir = spillDir;
+        this.sender = sender;
+        this.mapper = mapper;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stat-hit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void offer(EndpointHitDto dto) {
+        if (queue.offer(dto) || offerOnOverflow(dto)) {
+            queued.incrementAndGet();
+            if (queue.size() >= batchSize && !flusher.isShutdown() && flushRequested.compareAndSet(false, true)) {
+                flusher.execute(this::flushSafely);
+            }
+        }
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getFlushed() {
+        return flushed.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public long getCorrupted() {
+        return corrupted.get();
+    }
+
+    public int getDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(flushInterval.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+    }
+
+    private boolean offerOnOverflow(EndpointHitDto dto) {
+        switch (policy) {
+            case BLOCK:
+                try {
+                    if (queue.offer(dto, blockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case SPILL:
+                if (spill(List.of(dto))) {
+                    spilled.incrementAndGet();
+                    return false;
+                }
+                break;
+            default:
+                break;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    private void flushSafely() {
+        flushRequested.set(false);
+        try {
+            flush();
+            replaySpilled();
+        } catch (RuntimeException e) {
+            log.error("Ошибка при отправке статистики: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flush() {
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        boolean available = true;
+        while (queue.drainTo(batch, batchSize) > 0) {
+            // после первого сбоя остальные пачки не ждут таймаут соединения, а сразу сохраняются или теряются
+            if (available) {
+                available = send(batch);
+            }
+            if (!available) {
+                keep(batch);
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private boolean send(List<EndpointHitDto> batch) {
+        try {
+            sender.accept(batch);
+            flushed.addAndGet(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Сервис статистики недоступен: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void keep(List<EndpointHitDto> batch) {
+        if (policy == HitOverflowPolicy.SPILL && spill(batch)) {
+            spilled.addAndGet(batch.size());
+            log.warn("{} просмотров сохранено на диск", batch.size());
+        } else {
+            dropped.addAndGet(batch.size());
+            log.warn("{} просмотров потеряно", batch.size());
+        }
+    }
+
+    private boolean spill(List<EndpointHitDto> hits) {
+        spillLock.lock();
+        try {
+            Files.createDirectories(spillDir);
+            try (BufferedWriter writer = Files.newBufferedWriter(spillDir.resolve(SPILL_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (EndpointHitDto hit : hits) {
+                    writer.write(mapper.writeValueAsString(hit));
+                    writer.newLine();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Не удалось сохранить просмотры на диск: {}", e.getMessage());
+            return false;
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    private void replaySpilled() {
+        if (policy != HitOverflowPolicy.SPILL || !queue.isEmpty()) {
+            return;
+        }
+        Path replay = spillDir.resolve(REPLAY_FILE);
+        Path progress = spillDir.resolve(PROGRESS_FILE);
+        spillLock.lock();
+        try {
+            Path spill = spillDir.resolve(SPILL_FILE);
+            if (Files.notExists(replay) && Files.exists(spill)) {
+                // отметка могла остаться от прошлого файла, если процесс упал между удалением файла и отметки
+                Files.deleteIfExists(progress);
+                Files.move(spill, replay, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            log.error("Не удалось подготовить сохраненные просмотры к отправке: {}", e.getMessage());
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+        if (Files.notExists(replay)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+            long done = readProgress(progress);
+            long line = 0;
+            while (line < done && reader.readLine() != null) {
+                line++;
+            }
+            long skipped = 0;
+            List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+            String json;
+            while ((json = reader.readLine()) != null) {
+                line++;
+                if (json.isBlank()) {
+                    continue;
+                }
+                EndpointHitDto hit = parse(json);
+                if (hit == null) {
+                    skipped++;
+                    continue;
+                }
+                batch.add(hit);
+                if (batch.size() == batchSize) {
+                    if (!replay(batch, progress, done, line)) {
+                        return;
+                    }
+                    discard(skipped);
+                    skipped = 0;
+                    done = line;
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty() && !replay(batch, progress, done, line)) {
+                return;
+            }
+            discard(skipped);
+            Files.delete(replay);
+            Files.deleteIfExists(progress);
+        } catch (IOException e) {
+            log.error("Не удалось отправить сохраненные просмотры: {}", e.getMessage());
+        }
+    }
+
+    private EndpointHitDto parse(String json) {
+        try {
+            return mapper.readValue(json, EndpointHitDto.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Поврежденная строка в сохраненных просмотрах: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    // поврежденные строки учитываются только после отправки пачки, иначе повторное чтение посчитало бы их дважды
+    private void discard(long skipped) {
+        if (skipped > 0) {
+            corrupted.addAndGet(skipped);
+            spilled.addAndGet(-skipped);
+            log.warn("Пропущено {} поврежденных строк в сохраненных просмотрах", skipped);
+        }
+    }
+
+    private boolean replay(List<EndpointHitDto> batch, Path progress, long from, long to) throws IOException {
+        // отметка пишется до отправки, чтобы падение процесса не привело к повторной отправке пачки;
+        // при сбое она возвращается назад, а файлы остаются до следующего запуска сброса
+        writeProgress(progress, to);
+        if (!send(batch)) {
+            writeProgress(progress, from);
+            log.warn("Отправка сохраненных просмотров отложена до следующего сброса");
+            return false;
+        }
+        spilled.addAndGet(-batch.size());
+        return true;
+    }
+
+    private long readProgress(Path progress) throws IOException {
+        if (Files.notExists(progress)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(progress, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("поврежден файл отметки " + progress, e);
+        }
+    }
+
+    private void writeProgress(Path progress, long line) throws IOException {
+        Path temporary = spillDir.resolve(PROGRESS_FILE + ".tmp");
+        Files.writeString(temporary, Long.toString(line), StandardCharsets.UTF_8);
+        Files.move(temporary, progress, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -1,7 +1,23 @@
 package ru.practicum;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -9,6 +25,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestClient;
@@ -17,32 +34,150 @@ import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStats;
 import ru.practicum.exception.ClientError;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
 @Component
 public class StatClient {
-    private final RestClient restClient;
+    private final ObjectMapper mapper;
+    private final MeterRegistry meterRegistry;
+    private final Timer sendTimer;
+    private final Timer statsTimer;
+    private CloseableHttpClient httpClient;
+    private RestClient restClient;
+    private URI hitBatchUri;
+    private UriComponentsBuilder statsUri;
+    private HitBuffer hitBuffer;
     @Value("${stats-server.url:http://stats-server:9090}")
     private String statUrl;
+    @Value("${stats-server.http.max-connections:50}")
+    private int maxConnections;
+    @Value("${stats-server.http.connect-timeout:500ms}")
+    private Duration connectTimeout;
+    @Value("${stats-server.http.read-timeout:2s}")
+    private Duration readTimeout;
+    @Value("${stats-server.http.pool-timeout:200ms}")
+    private Duration poolTimeout;
+    @Value("${stats-server.http.idle-timeout:30s}")
+    private Duration idleTimeout;
+    @Value("${stats-server.http.time-to-live:5m}")
+    private Duration timeToLive;
+    @Value("${stats-server.hit.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${stats-server.hit.batch-size:100}")
+    private int batchSize;
+    @Value("${stats-server.hit.flush-interval:1s}")
+    private Duration flushInterval;
+    @Value("${stats-server.hit.overflow:DROP}")
+    private HitOverflowPolicy overflowPolicy;
+    @Value("${stats-server.hit.block-timeout:50ms}")
+    private Duration blockTimeout;
+    @Value("${stats-server.hit.spill-dir:${java.io.tmpdir}/ewm-stat-hits}")
+    private Path spillDir;
 
-    public StatClient() {
+    public StatClient(ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.mapper = mapper;
+        this.meterRegistry = meterRegistry;
+        sendTimer = Timer.builder("stat.client.requests")
+                .tag("operation", "hit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        statsTimer = Timer.builder("stat.client.requests")
+                .tag("operation", "stats")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        startTransport();
+        startHitBuffer();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        stopHitBuffer();
+        httpClient.close();
+    }
+
+    private void startTransport() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+                        .build())
+                .build();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()))
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "stats-server").bindTo(meterRegistry);
         restClient = RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
                 .build();
+
+        hitBatchUri = UriComponentsBuilder.fromHttpUrl(statUrl).path("/hit/batch").build().toUri();
+        statsUri = UriComponentsBuilder.fromHttpUrl(statUrl).path("/stats");
+    }
+
+    private void startHitBuffer() {
+        hitBuffer = new HitBuffer(queueCapacity, batchSize, flushInterval, overflowPolicy, blockTimeout, spillDir,
+                this::sendHits, mapper);
+        hitBuffer.start();
+        Gauge.builder("stat.client.hits.queue.depth", hitBuffer, HitBuffer::getDepth)
+                .register(meterRegistry);
+        FunctionCounter.builder("stat.client.hits", hitBuffer, HitBuffer::getQueued)
+                .tag("result", "queued")
+                .register(meterRegistry);
+        FunctionCounter.builder("stat.client.hits", hitBuffer, HitBuffer::getFlushed)
+                .tag("result", "flushed")
+                .register(meterRegistry);
+        FunctionCounter.builder("stat.client.hits", hitBuffer, HitBuffer::getDropped)
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        FunctionCounter.builder("stat.client.hits", hitBuffer, HitBuffer::getCorrupted)
+                .tag("result", "corrupted")
+                .register(meterRegistry);
+        Gauge.builder("stat.client.hits.spilled", hitBuffer, HitBuffer::getSpilled)
+                .register(meterRegistry);
+    }
+
+    private void stopHitBuffer() {
+        hitBuffer.close();
+        log.info("Статистика просмотров: поставлено в очередь {}, отправлено {}, потеряно {}, на диске {}",
+                hitBuffer.getQueued(), hitBuffer.getFlushed(), hitBuffer.getDropped(), hitBuffer.getSpilled());
     }
 
     public void hit(@RequestBody @Valid EndpointHitDto dto) {
-        String url = UriComponentsBuilder
-                .fromHttpUrl(statUrl)
-                .path("/hit")
-                .build()
-                .toUriString();
-
-        ResponseEntity<EndpointHitDto> result = restClient.post()
-                .uri(url)
+        hitBuffer.offer(dto);
+    }
+
+    public HitBuffer getHitBuffer() {
+        return hitBuffer;
+    }
+
+    private void sendHits(List<EndpointHitDto> hits) {
+        sendTimer.record(() -> postHits(hits));
+    }
+
+    private void postHits(List<EndpointHitDto> hits) {
+        ResponseEntity<Void> result = restClient.post()
+                .uri(hitBatchUri)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(dto)
+                .body(hits)
                 .retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {
                     throw new ClientError(
@@ -54,10 +189,10 @@ public class StatClient {
                             response.getBody().toString()
                     );
                 })
-                .toEntity(EndpointHitDto.class);
+                .toBodilessEntity();
 
         if (result.getStatusCode() == HttpStatus.CREATED) {
-            log.info("Информация сохранена: {}", dto);
+            log.info("Информация сохранена: {} просмотров", hits.size());
         } else {
             log.error("Произошла ошибка с записью данных");
         }
@@ -67,8 +202,7 @@ public class StatClient {
                                                     @RequestParam(name = "end") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
                                                     @RequestParam(name = "uris", required = false) List<String> uris,
                                                     @RequestParam(name = "unique", required = false) Boolean unique) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(statUrl + "/stats")
+        UriComponentsBuilder builder = statsUri.cloneBuilder()
                 .queryParam("start", start)
                 .queryParam("end", end);
         if (uris != null && !uris.isEmpty()) {
@@ -79,7 +213,7 @@ public class StatClient {
             builder.queryParam("unique", unique);
         }
 
-        List<ViewStats> result = restClient.get()
+        List<ViewStats> result = statsTimer.record(() -> restClient.get()
                 .uri(builder.build().toUriString())
                 .retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {
@@ -92,8 +226,8 @@ public class StatClient {
                             response.getBody().toString()
                     );
                 })
-                .body(new ParameterizedTypeReference<>() {
-                });
+                .body(new ParameterizedTypeReference<List<ViewStats>>() {
+                }));
         return ResponseEntity.ok(result);
     }
 
@@ -0,0 +1,85 @@
+package ru.practicum;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.dto.EndpointHitDto;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitBufferTest {
+    private static final int BATCH_SIZE = 2;
+    private static final int HITS = 10;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    private Path spillDir;
+
+    @Test
+    void replayStopsAtFirstFailedBatchAndResumesLater() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String uri : uris()) {
+            lines.add(mapper.writeValueAsString(
+                    new EndpointHitDto("ewm-main-service", uri, "192.168.0.1", LocalDateTime.now())));
+        }
+        Files.write(spillDir.resolve("stat-hits.ndjson"), lines);
+
+        // сервис недоступен: повтор останавливается на первой пачке и оставляет файлы до следующего сброса
+        AtomicInteger calls = new AtomicInteger();
+        buffer(batch -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("connection refused");
+        }).close();
+
+        assertThat(calls).hasValue(1);
+        assertThat(spillDir.resolve("stat-hits.ndjson")).doesNotExist();
+        assertThat(Files.readAllLines(spillDir.resolve("stat-hits.replay"))).isEqualTo(lines);
+        assertThat(spillDir.resolve("stat-hits.replay.progress")).content().isEqualTo("0");
+
+        // сервис отвечает на две пачки и снова падает: отметка остается после последней отправленной пачки
+        List<String> received = new ArrayList<>();
+        AtomicInteger accepted = new AtomicInteger();
+        buffer(batch -> {
+            if (accepted.incrementAndGet() > 2) {
+                throw new IllegalStateException("connection refused");
+            }
+            batch.forEach(hit -> received.add(hit.getUri()));
+        }).close();
+
+        assertThat(accepted).hasValue(3);
+        assertThat(received).hasSize(2 * BATCH_SIZE);
+        assertThat(spillDir.resolve("stat-hits.replay.progress")).content().isEqualTo("4");
+
+        HitBuffer up = buffer(batch -> batch.forEach(hit -> received.add(hit.getUri())));
+        up.close();
+
+        assertThat(received).containsExactlyElementsOf(uris());
+        assertThat(up.getFlushed()).isEqualTo(HITS - 2 * BATCH_SIZE);
+        assertThat(spillDir.resolve("stat-hits.replay")).doesNotExist();
+        assertThat(spillDir.resolve("stat-hits.replay.progress")).doesNotExist();
+    }
+
+    private HitBuffer buffer(Consumer<List<EndpointHitDto>> sender) {
+        return new HitBuffer(HITS, BATCH_SIZE, Duration.ofMillis(10), HitOverflowPolicy.SPILL, Duration.ZERO,
+                spillDir, sender, mapper);
+    }
+
+    private static List<String> uris() {
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < HITS; i++) {
+            uris.add("/events/" + i);
+        }
+        return uris;
+    }
+}
@@ -1,15 +1,21 @@
 package ru.practicum.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.service.StatisticService;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStats;
+import ru.practicum.exception.ValidationException;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,7 +23,9 @@ import java.util.List;
 @RestController
 @RequiredArgsConstructor
 public class StatisticController {
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
     private final StatisticService service;
+    private final ObjectMapper mapper;
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
@@ -26,12 +34,35 @@ public class StatisticController {
         service.saveHit(dto);
     }
 
+    @PostMapping(value = "/hit/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveHits(@RequestBody List<EndpointHitDto> dtos) {
+        log.info("POST hit batch size={}", dtos.size());
+        service.saveHits(dtos.iterator());
+    }
+
+    @PostMapping(value = "/hit/batch", consumes = APPLICATION_NDJSON)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveHitsStream(HttpServletRequest request) throws IOException {
+        log.info("POST hit stream");
+        try {
+            service.saveHits(mapper.readerFor(EndpointHitDto.class).readValues(request.getInputStream()));
+        } catch (RuntimeJsonMappingException e) {
+            throw new ValidationException("Некорректная строка в потоке просмотров: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/stats")
     public List<ViewStats> getStatistics(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
                                          @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
                                          @RequestParam(required = false) List<String> uris,
-                                         @RequestParam(defaultValue = "false") Boolean unique) {
+                                         @RequestParam(defaultValue = "false") String unique) {
         log.info("GET stats start={}, end={}, uris={}, unique={}", start, end, uris, unique);
-        return service.getStatistics(start, end, uris, unique);
+        return switch (unique.toLowerCase()) {
+            case "true" -> service.getStatistics(start, end, uris, true);
+            case "false" -> service.getStatistics(start, end, uris, false);
+            case "approx" -> service.getApproxUniqueStatistics(start, end, uris);
+            default -> throw new ValidationException("Параметр unique должен быть true, false или approx");
+        };
     }
 }
@@ -0,0 +1,117 @@
+package ru.practicum.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog с 4096 регистрами: стандартная ошибка оценки 1.04 / sqrt(4096) ≈ 1.6%,
+ * т.е. примерно в 95% случаев отклонение от точного значения не превышает 3.3%.
+ * <p>
+ * Пока заполнено меньше трети регистров, оценка хранится в разреженном виде: по 3 байта на ненулевой регистр
+ * (номер регистра big-endian и его значение) в порядке номеров. Плотный вид — ровно {@link #REGISTERS} байт,
+ * разреженный короче и кратен 3, поэтому форматы различаются по длине. Тот же формат разбирает и собирает
+ * функция {@code hll_merge} в schema.sql.
+ */
+public class HyperLogLog {
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    private static final int SPARSE_ENTRY = 3;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length == REGISTERS) {
+            return new HyperLogLog(Arrays.copyOf(bytes, REGISTERS));
+        }
+        if (bytes.length % SPARSE_ENTRY != 0) {
+            throw new IllegalArgumentException("Некорректный размер HyperLogLog: " + bytes.length);
+        }
+        byte[] registers = new byte[REGISTERS];
+        for (int i = 0; i < bytes.length; i += SPARSE_ENTRY) {
+            int index = (bytes[i] & 0xff) << 8 | bytes[i + 1] & 0xff;
+            if (index >= REGISTERS) {
+                throw new IllegalArgumentException("Некорректный номер регистра HyperLogLog: " + index);
+            }
+            registers[index] = bytes[i + 2];
+        }
+        return new HyperLogLog(registers);
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        int filled = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                filled++;
+            }
+        }
+        if (filled * SPARSE_ENTRY >= REGISTERS) {
+            return Arrays.copyOf(registers, REGISTERS);
+        }
+        byte[] sparse = new byte[filled * SPARSE_ENTRY];
+        int position = 0;
+        for (int index = 0; index < REGISTERS; index++) {
+            if (registers[index] != 0) {
+                sparse[position++] = (byte) (index >>> 8);
+                sparse[position++] = (byte) index;
+                sparse[position++] = registers[index];
+            }
+        }
+        return sparse;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
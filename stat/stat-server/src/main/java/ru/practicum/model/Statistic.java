@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @ToString
 public class Statistic {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "statistic_seq")
+    @SequenceGenerator(name = "statistic_seq", sequenceName = "statistic_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "app_name")
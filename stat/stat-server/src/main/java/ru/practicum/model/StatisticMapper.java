@@ -3,6 +3,8 @@ package ru.practicum.model;
 import lombok.experimental.UtilityClass;
 import ru.practicum.dto.EndpointHitDto;
 
+import java.time.LocalDateTime;
+
 @UtilityClass
 public class StatisticMapper {
     public Statistic toStatistic(EndpointHitDto dto) {
@@ -10,7 +12,7 @@ public class StatisticMapper {
         stat.setApp(dto.getApp());
         stat.setUri(dto.getUri());
         stat.setIp(dto.getIp());
-        stat.setRequestDate(dto.getTimestamp());
+        stat.setRequestDate(dto.getTimestamp() != null ? dto.getTimestamp() : LocalDateTime.now());
         return stat;
     }
 }
@@ -0,0 +1,191 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.ViewStats;
+import ru.practicum.model.RollupGranularity;
+import ru.practicum.model.Statistic;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Repository
+@RequiredArgsConstructor
+public class StatisticRollupRepository {
+    private static final String UPSERT_ROLLUP = """
+            INSERT INTO statistic_rollup (granularity, bucket_start, app_name, uri, hits)
+            VALUES (:granularity, :bucketStart, :app, :uri, :hits)
+            ON CONFLICT (granularity, uri, bucket_start, app_name)
+            DO UPDATE SET hits = statistic_rollup.hits + EXCLUDED.hits
+            """;
+    private static final String INSERT_DAILY_IP = """
+            INSERT INTO statistic_daily_ip (bucket_start, app_name, uri, ip)
+            VALUES (:bucketStart, :app, :uri, :ip)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final Comparator<RollupKey> ROLLUP_ORDER = Comparator
+            .comparing(RollupKey::granularity)
+            .thenComparing(RollupKey::uri)
+            .thenComparing(RollupKey::bucketStart)
+            .thenComparing(RollupKey::app);
+    private static final Comparator<VisitorKey> VISITOR_ORDER = Comparator
+            .comparing(VisitorKey::bucketStart)
+            .thenComparing(VisitorKey::app)
+            .thenComparing(VisitorKey::uri)
+            .thenComparing(VisitorKey::ip);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void add(Collection<Statistic> hits) {
+        Map<RollupKey, Long> rollups = new TreeMap<>(ROLLUP_ORDER);
+        TreeSet<VisitorKey> visitors = new TreeSet<>(VISITOR_ORDER);
+        for (Statistic hit : hits) {
+            if (hit.getRequestDate() == null) {
+                continue;
+            }
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                RollupKey key = new RollupKey(granularity, granularity.floor(hit.getRequestDate()), hit.getApp(), hit.getUri());
+                rollups.merge(key, 1L, Long::sum);
+            }
+            visitors.add(new VisitorKey(RollupGranularity.DAY.floor(hit.getRequestDate()), hit.getApp(), hit.getUri(), hit.getIp()));
+        }
+        if (rollups.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, rollups.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("granularity", entry.getKey().granularity().name())
+                        .addValue("bucketStart", Timestamp.valueOf(entry.getKey().bucketStart()))
+                        .addValue("app", entry.getKey().app())
+                        .addValue("uri", entry.getKey().uri())
+                        .addValue("hits", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new));
+        jdbcTemplate.batchUpdate(INSERT_DAILY_IP, visitors.stream()
+                .map(visitor -> new MapSqlParameterSource()
+                        .addValue("bucketStart", Timestamp.valueOf(visitor.bucketStart()))
+                        .addValue("app", visitor.app())
+                        .addValue("uri", visitor.uri())
+                        .addValue("ip", visitor.ip()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    public List<ViewStats> findHits(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource("uris", uris);
+        List<String> parts = new ArrayList<>();
+        LocalDateTime from = RollupGranularity.MINUTE.ceil(start);
+        LocalDateTime to = RollupGranularity.MINUTE.floor(end);
+        if (!from.isBefore(to)) {
+            parts.add(rawHits(params, parts.size(), start, end, true, uris));
+        } else {
+            parts.add(rawHits(params, parts.size(), start, from, false, uris));
+            addBuckets(params, parts, from, to, RollupGranularity.MINUTE, uris);
+            parts.add(rawHits(params, parts.size(), to, end, true, uris));
+        }
+
+        String sql = "SELECT app_name, uri, SUM(hits) AS hits FROM ("
+                + String.join(" UNION ALL ", parts)
+                + ") AS s GROUP BY app_name, uri ORDER BY hits DESC";
+        return query(sql, params);
+    }
+
+    public List<ViewStats> findUniqueIp(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource("uris", uris);
+        List<String> parts = new ArrayList<>();
+        LocalDateTime from = RollupGranularity.DAY.ceil(start);
+        LocalDateTime to = RollupGranularity.DAY.floor(end);
+        if (!from.isBefore(to)) {
+            parts.add(rawVisitors(params, parts.size(), start, end, true, uris));
+        } else {
+            parts.add(rawVisitors(params, parts.size(), start, from, false, uris));
+            int index = parts.size();
+            params.addValue("from" + index, Timestamp.valueOf(from));
+            params.addValue("to" + index, Timestamp.valueOf(to));
+            parts.add("SELECT app_name, uri, ip FROM statistic_daily_ip"
+                    + " WHERE bucket_start >= :from" + index + " AND bucket_start < :to" + index
+                    + uriFilter(uris));
+            parts.add(rawVisitors(params, parts.size(), to, end, true, uris));
+        }
+
+        String sql = "SELECT app_name, uri, COUNT(DISTINCT ip) AS hits FROM ("
+                + String.join(" UNION ALL ", parts)
+                + ") AS s GROUP BY app_name, uri ORDER BY hits DESC";
+        return query(sql, params);
+    }
+
+    private void addBuckets(MapSqlParameterSource params, List<String> parts, LocalDateTime from, LocalDateTime to,
+                            RollupGranularity granularity, List<String> uris) {
+        RollupGranularity coarser = granularity == RollupGranularity.MINUTE ? RollupGranularity.HOUR : RollupGranularity.DAY;
+        LocalDateTime coarseFrom = coarser.ceil(from);
+        LocalDateTime coarseTo = coarser.floor(to);
+        if (granularity == RollupGranularity.DAY || !coarseFrom.isBefore(coarseTo)) {
+            parts.add(buckets(params, parts.size(), granularity, from, to, uris));
+            return;
+        }
+        if (from.isBefore(coarseFrom)) {
+            parts.add(buckets(params, parts.size(), granularity, from, coarseFrom, uris));
+        }
+        addBuckets(params, parts, coarseFrom, coarseTo, coarser, uris);
+        if (coarseTo.isBefore(to)) {
+            parts.add(buckets(params, parts.size(), granularity, coarseTo, to, uris));
+        }
+    }
+
+    private String buckets(MapSqlParameterSource params, int index, RollupGranularity granularity,
+                           LocalDateTime from, LocalDateTime to, List<String> uris) {
+        params.addValue("granularity" + index, granularity.name());
+        params.addValue("from" + index, Timestamp.valueOf(from));
+        params.addValue("to" + index, Timestamp.valueOf(to));
+        return "SELECT app_name, uri, hits FROM statistic_rollup"
+                + " WHERE granularity = :granularity" + index
+                + " AND bucket_start >= :from" + index + " AND bucket_start < :to" + index
+                + uriFilter(uris);
+    }
+
+    private String rawHits(MapSqlParameterSource params, int index, LocalDateTime from, LocalDateTime to,
+                           boolean inclusive, List<String> uris) {
+        return "SELECT app_name, uri, COUNT(*) AS hits FROM statistic"
+                + rawRange(params, index, from, to, inclusive)
+                + uriFilter(uris)
+                + " GROUP BY app_name, uri";
+    }
+
+    private String rawVisitors(MapSqlParameterSource params, int index, LocalDateTime from, LocalDateTime to,
+                               boolean inclusive, List<String> uris) {
+        return "SELECT app_name, uri, ip FROM statistic"
+                + rawRange(params, index, from, to, inclusive)
+                + uriFilter(uris);
+    }
+
+    private String rawRange(MapSqlParameterSource params, int index, LocalDateTime from, LocalDateTime to,
+                            boolean inclusive) {
+        params.addValue("from" + index, Timestamp.valueOf(from));
+        params.addValue("to" + index, Timestamp.valueOf(to));
+        return " WHERE request_date >= :from" + index
+                + " AND request_date " + (inclusive ? "<=" : "<") + " :to" + index;
+    }
+
+    private String uriFilter(List<String> uris) {
+        return uris != null && !uris.isEmpty() ? " AND uri IN (:uris)" : "";
+    }
+
+    private List<ViewStats> query(String sql, MapSqlParameterSource params) {
+        return jdbcTemplate.query(sql, params,
+                (rs, rowNum) -> new ViewStats(rs.getString("app_name"), rs.getString("uri"), rs.getLong("hits")));
+    }
+
+    private record RollupKey(RollupGranularity granularity, LocalDateTime bucketStart, String app, String uri) {
+    }
+
+    private record VisitorKey(LocalDateTime bucketStart, String app, String uri, String ip) {
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.ViewStats;
+import ru.practicum.model.HyperLogLog;
+import ru.practicum.model.RollupGranularity;
+import ru.practicum.model.Statistic;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class StatisticSketchRepository {
+    private static final List<RollupGranularity> GRANULARITIES = List.of(RollupGranularity.HOUR, RollupGranularity.DAY);
+    // регистры объединяются в базе: одна строка пакета на ключ вместо вставки, чтения с блокировкой и обновления
+    private static final String MERGE_SKETCH = """
+            INSERT INTO statistic_hll (granularity, bucket_start, app_name, uri, registers)
+            VALUES (:granularity, :bucketStart, :app, :uri, :registers)
+            ON CONFLICT (granularity, uri, bucket_start, app_name)
+            DO UPDATE SET registers = hll_merge(statistic_hll.registers, EXCLUDED.registers)
+            """;
+    private static final Comparator<SketchKey> SKETCH_ORDER = Comparator
+            .comparing(SketchKey::granularity)
+            .thenComparing(SketchKey::uri)
+            .thenComparing(SketchKey::bucketStart)
+            .thenComparing(SketchKey::app);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void add(Collection<Statistic> hits) {
+        Map<SketchKey, HyperLogLog> sketches = new TreeMap<>(SKETCH_ORDER);
+        for (Statistic hit : hits) {
+            if (hit.getRequestDate() == null) {
+                continue;
+            }
+            for (RollupGranularity granularity : GRANULARITIES) {
+                SketchKey key = new SketchKey(granularity, granularity.floor(hit.getRequestDate()), hit.getApp(), hit.getUri());
+                sketches.computeIfAbsent(key, k -> new HyperLogLog()).add(hit.getIp());
+            }
+        }
+
+        if (sketches.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(MERGE_SKETCH, sketches.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("granularity", entry.getKey().granularity().name())
+                        .addValue("bucketStart", Timestamp.valueOf(entry.getKey().bucketStart()))
+                        .addValue("app", entry.getKey().app())
+                        .addValue("uri", entry.getKey().uri())
+                        .addValue("registers", entry.getValue().toBytes()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    public List<ViewStats> findApproxUniqueIp(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        Map<AppUri, HyperLogLog> sketches = new HashMap<>();
+        LocalDateTime from = RollupGranularity.HOUR.ceil(start);
+        LocalDateTime to = RollupGranularity.HOUR.floor(end);
+        if (!from.isBefore(to)) {
+            mergeRaw(sketches, start, end, true, uris);
+        } else {
+            mergeRaw(sketches, start, from, false, uris);
+            LocalDateTime dayFrom = RollupGranularity.DAY.ceil(from);
+            LocalDateTime dayTo = RollupGranularity.DAY.floor(to);
+            if (!dayFrom.isBefore(dayTo)) {
+                mergeStored(sketches, RollupGranularity.HOUR, from, to, uris);
+            } else {
+                mergeStored(sketches, RollupGranularity.HOUR, from, dayFrom, uris);
+                mergeStored(sketches, RollupGranularity.DAY, dayFrom, dayTo, uris);
+                mergeStored(sketches, RollupGranularity.HOUR, dayTo, to, uris);
+            }
+            mergeRaw(sketches, to, end, true, uris);
+        }
+
+        List<ViewStats> result = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> result.add(new ViewStats(key.app(), key.uri(), sketch.estimate())));
+        result.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return result;
+    }
+
+    private void mergeStored(Map<AppUri, HyperLogLog> sketches, RollupGranularity granularity,
+                             LocalDateTime from, LocalDateTime to, List<String> uris) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("granularity", granularity.name())
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("uris", uris);
+        jdbcTemplate.query("SELECT app_name, uri, registers FROM statistic_hll"
+                        + " WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to"
+                        + uriFilter(uris), params,
+                rs -> {
+                    sketches.computeIfAbsent(new AppUri(rs.getString("app_name"), rs.getString("uri")), k -> new HyperLogLog())
+                            .merge(HyperLogLog.fromBytes(rs.getBytes("registers")));
+                });
+    }
+
+    private void mergeRaw(Map<AppUri, HyperLogLog> sketches, LocalDateTime from, LocalDateTime to,
+                          boolean inclusive, List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("uris", uris);
+        jdbcTemplate.query("SELECT DISTINCT app_name, uri, ip FROM statistic"
+                        + " WHERE request_date >= :from AND request_date " + (inclusive ? "<=" : "<") + " :to"
+                        + uriFilter(uris), params,
+                rs -> {
+                    sketches.computeIfAbsent(new AppUri(rs.getString("app_name"), rs.getString("uri")), k -> new HyperLogLog())
+                            .add(rs.getString("ip"));
+                });
+    }
+
+    private String uriFilter(List<String> uris) {
+        return uris != null && !uris.isEmpty() ? " AND uri IN (:uris)" : "";
+    }
+
+    private record SketchKey(RollupGranularity granularity, LocalDateTime bucketStart, String app, String uri) {
+    }
+
+    private record AppUri(String app, String uri) {
+    }
+}
@@ -0,0 +1,251 @@
+package ru.practicum.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.model.RollupGranularity;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatisticPartitionManager {
+    private static final String DEFAULT_PARTITION = "statistic_default";
+    private static final String LEGACY_PARTITION = "statistic_legacy";
+    private static final String LEGACY_BOUND = "statistic_legacy_bound";
+    private static final String LEGACY_KEY = "statistic_legacy_pkey";
+    private static final String LOCK_TIMEOUT = "5s";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'statistic_p'yyyyMM");
+    private static final int DELETE_CHUNK = 10_000;
+    private static final String GRANULARITIES = Arrays.stream(RollupGranularity.values())
+            .map(granularity -> "'" + granularity.name() + "'")
+            .collect(Collectors.joining(", ", "granularity IN (", ") AND "));
+    // условие по granularity позволяет удалять по индексу (granularity, bucket_start)
+    private static final Map<String, String> AGGREGATES = Map.of(
+            "statistic_rollup", GRANULARITIES,
+            "statistic_daily_ip", "",
+            "statistic_hll", GRANULARITIES);
+    private static final Pattern BOUNDS = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${stats.partition.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${stats.partition.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${stats.partition.retention-action:DROP}")
+    private RetentionAction retentionAction;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @PostConstruct
+    public void init() {
+        if (isPartitioned()) {
+            maintain();
+        }
+    }
+
+    // старая таблица переводится в секционированную уже после запуска, до этого записи идут в обычную таблицу
+    @EventListener(ApplicationReadyEvent.class)
+    public void convert() {
+        if (isPartitioned()) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        builder.name("stat-partition-convert").start(this::maintain);
+    }
+
+    @Scheduled(cron = "${stats.partition.cron:0 0 3 * * *}")
+    public synchronized void maintain() {
+        if (!isPartitioned() && !convertLegacyTable()) {
+            return;
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status ->
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF statistic DEFAULT"));
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            tx.executeWithoutResult(status -> createPartition(month));
+        }
+
+        if (retentionMonths > 0) {
+            LocalDateTime cutoff = current.minusMonths(retentionMonths).atDay(1).atStartOfDay();
+            for (Partition partition : findPartitions()) {
+                if (partition.to() != null && !partition.to().isAfter(cutoff)) {
+                    tx.executeWithoutResult(status -> expire(partition));
+                }
+            }
+            AGGREGATES.forEach((table, condition) -> expireAggregates(tx, table, condition, cutoff));
+        }
+    }
+
+    private boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = 'statistic'::regclass", String.class);
+        return !"r".equals(kind);
+    }
+
+    private boolean convertLegacyTable() {
+        try {
+            convertLegacyTable(YearMonth.from(jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(request_date), localtimestamp) FROM statistic", LocalDateTime.class)));
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Не удалось преобразовать таблицу statistic в секционированную, повтор при следующем обслуживании: {}",
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private void convertLegacyTable(YearMonth last) {
+        Timestamp bound = Timestamp.valueOf(last.plusMonths(1).atDay(1).atStartOfDay());
+
+        // Подготовка не останавливает запись: просмотры без даты получают самую раннюю дату таблицы, проверочное
+        // ограничение проверяется под блокировкой, допускающей вставки, индекс первичного ключа секции строится
+        // конкурентно. Короткие исключительные блокировки ждут не дольше LOCK_TIMEOUT, чтобы не задерживать вставки
+        // за долгими чтениями, и при неудаче все повторяется при следующем обслуживании
+        int stamped = jdbcTemplate.update("UPDATE statistic SET request_date = "
+                + "COALESCE((SELECT MIN(request_date) FROM statistic), ?) WHERE request_date IS NULL",
+                Timestamp.valueOf(last.atDay(1).atStartOfDay()));
+        withLockTimeout(() -> {
+            jdbcTemplate.execute("ALTER TABLE statistic DROP CONSTRAINT IF EXISTS " + LEGACY_BOUND);
+            jdbcTemplate.execute("ALTER TABLE statistic ADD CONSTRAINT " + LEGACY_BOUND
+                    + " CHECK (request_date IS NOT NULL AND request_date < '" + bound + "') NOT VALID");
+        });
+        jdbcTemplate.execute("ALTER TABLE statistic VALIDATE CONSTRAINT " + LEGACY_BOUND);
+        Boolean valid = jdbcTemplate.query("SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)",
+                rs -> rs.next() ? rs.getBoolean(1) : null, LEGACY_KEY);
+        if (!Boolean.TRUE.equals(valid)) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + LEGACY_KEY);
+            jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY " + LEGACY_KEY + " ON statistic (id, request_date)");
+        }
+
+        // Благодаря ограничению и готовому индексу ни SET NOT NULL, ни ATTACH PARTITION не читают таблицу,
+        // а существующие индексы подключаются к индексам новой таблицы без перестроения
+        withLockTimeout(() -> {
+            jdbcTemplate.execute("ALTER TABLE statistic RENAME TO " + LEGACY_PARTITION);
+            jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN request_date SET NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT pk_statistic, ADD CONSTRAINT "
+                    + LEGACY_KEY + " PRIMARY KEY USING INDEX " + LEGACY_KEY);
+            jdbcTemplate.execute("CREATE TABLE statistic (LIKE " + LEGACY_PARTITION
+                    + " INCLUDING DEFAULTS INCLUDING INDEXES) PARTITION BY RANGE (request_date)");
+            jdbcTemplate.execute("ALTER TABLE statistic RENAME CONSTRAINT statistic_pkey TO pk_statistic");
+            jdbcTemplate.execute("ALTER TABLE statistic ATTACH PARTITION " + LEGACY_PARTITION
+                    + " FOR VALUES FROM (MINVALUE) TO ('" + bound + "')");
+            jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT " + LEGACY_BOUND);
+        });
+        log.info("Таблица statistic преобразована в секционированную, старые данные до {} оставлены в {}, "
+                + "просмотров без даты: {}", bound, LEGACY_PARTITION, stamped);
+    }
+
+    private void withLockTimeout(Runnable ddl) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+            ddl.run();
+        });
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        boolean covered = findPartitions().stream()
+                .anyMatch(p -> (p.from() == null || p.from().isBefore(to)) && (p.to() == null || p.to().isAfter(from)));
+        if (covered) {
+            return;
+        }
+        String name = month.format(NAME_FORMAT);
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE statistic INCLUDING DEFAULTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE request_date >= ? AND request_date < ? RETURNING *) INSERT INTO " + name
+                + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE statistic ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + Timestamp.valueOf(from) + "') TO ('" + Timestamp.valueOf(to) + "')");
+        log.info("Создана секция {} [{}, {}), перенесено записей: {}", name, from.toLocalDate(), to.toLocalDate(), moved);
+    }
+
+    private void expire(Partition partition) {
+        if (retentionAction == RetentionAction.DETACH) {
+            jdbcTemplate.execute("ALTER TABLE statistic DETACH PARTITION " + partition.name());
+            log.info("Секция {} отсоединена от statistic и оставлена в архиве", partition.name());
+        } else {
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+            log.info("Секция {} удалена по сроку хранения", partition.name());
+        }
+    }
+
+    // агрегаты за удаленные секции тоже удаляются, иначе они растут без ограничений; удаление идет частями,
+    // чтобы не держать долгие транзакции
+    private void expireAggregates(TransactionTemplate tx, String table, String condition, LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        long total = 0;
+        Integer deleted;
+        do {
+            deleted = tx.execute(status -> jdbcTemplate.update("DELETE FROM " + table + " WHERE ctid IN (SELECT ctid FROM "
+                    + table + " WHERE " + condition + "bucket_start < ? LIMIT ?)", before, DELETE_CHUNK));
+            total += deleted;
+        } while (deleted == DELETE_CHUNK);
+        if (total > 0) {
+            log.info("Из {} удалено записей до {} по сроку хранения: {}", table, cutoff.toLocalDate(), total);
+        }
+    }
+
+    private List<Partition> findPartitions() {
+        return jdbcTemplate.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound "
+                        + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'statistic'::regclass",
+                (rs, rowNum) -> toPartition(rs.getString("relname"), rs.getString("bound")))
+                .stream()
+                .filter(p -> !DEFAULT_PARTITION.equals(p.name()))
+                .toList();
+    }
+
+    private Partition toPartition(String name, String bound) {
+        Matcher matcher = BOUNDS.matcher(bound);
+        if (!matcher.find()) {
+            return new Partition(name, null, null);
+        }
+        return new Partition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)));
+    }
+
+    private LocalDateTime parseBound(String value) {
+        if (!value.startsWith("'")) {
+            return null;
+        }
+        String date = value.substring(1, value.length() - 1);
+        return date.length() == 10 ? LocalDate.parse(date).atStartOfDay() : Timestamp.valueOf(date).toLocalDateTime();
+    }
+
+    public enum RetentionAction {
+        DROP,
+        DETACH
+    }
+
+    private record Partition(String name, LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -4,13 +4,20 @@ import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStats;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 public interface StatisticService {
     void saveHit(EndpointHitDto dto);
 
+    void saveHits(Iterator<EndpointHitDto> hits);
+
     List<ViewStats> getStatistics(LocalDateTime start,
                                   LocalDateTime end,
                                   List<String> uris,
                                   Boolean unique);
+
+    List<ViewStats> getApproxUniqueStatistics(LocalDateTime start,
+                                              LocalDateTime end,
+                                              List<String> uris);
 }
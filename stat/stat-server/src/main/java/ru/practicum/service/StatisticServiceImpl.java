@@ -1,29 +1,73 @@
 package ru.practicum.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.model.Statistic;
 import ru.practicum.repository.StatisticRepository;
+import ru.practicum.repository.StatisticRollupRepository;
+import ru.practicum.repository.StatisticSketchRepository;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStats;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.model.StatisticMapper;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("stats.service")
 @RequiredArgsConstructor
 @Transactional
 public class StatisticServiceImpl implements StatisticService {
     private final StatisticRepository repository;
+    private final StatisticRollupRepository rollupRepository;
+    private final StatisticSketchRepository sketchRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    @Value("${stats.hit.batch-size:500}")
+    private int batchSize;
+    @Value("${stats.rollup.enabled:true}")
+    private boolean rollupEnabled;
 
     @Override
     public void saveHit(EndpointHitDto dto) {
-        repository.save(StatisticMapper.toStatistic(dto));
+        Statistic statistic = repository.save(StatisticMapper.toStatistic(dto));
+        rollupRepository.add(List.of(statistic));
+        sketchRepository.add(List.of(statistic));
+    }
+
+    @Override
+    public void saveHits(Iterator<EndpointHitDto> hits) {
+        long started = System.nanoTime();
+        List<Statistic> batch = new ArrayList<>(batchSize);
+        long saved = 0;
+        while (hits.hasNext()) {
+            EndpointHitDto dto = hits.next();
+            validate(dto);
+            batch.add(StatisticMapper.toStatistic(dto));
+            if (batch.size() == batchSize) {
+                saved += persist(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            saved += persist(batch);
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Сохранено {} просмотров за {} мс ({} просмотров/с)", saved, elapsedMs, saved * 1000 / elapsedMs);
     }
 
     @Override
@@ -36,6 +80,17 @@ public class StatisticServiceImpl implements StatisticService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректно указаны начало и конец диапазона");
         }
 
+        // пустой список uris приходит из запроса вида ?uris= и означает то же, что отсутствие фильтра
+        if (uris != null && uris.isEmpty()) {
+            uris = null;
+        }
+
+        if (rollupEnabled) {
+            return unique
+                    ? rollupRepository.findUniqueIp(start, end, uris)
+                    : rollupRepository.findHits(start, end, uris);
+        }
+
         if (unique) {
             if (uris != null) {
                 return repository.findUniqueIpAndUrisIn(start, end, uris);
@@ -48,4 +103,35 @@ public class StatisticServiceImpl implements StatisticService {
             return repository.findNotUniqueIp(start, end);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ViewStats> getApproxUniqueStatistics(LocalDateTime start,
+                                                     LocalDateTime end,
+                                                     List<String> uris) {
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректно указаны начало и конец диапазона");
+        }
+        return sketchRepository.findApproxUniqueIp(start, end, uris);
+    }
+
+    private int persist(List<Statistic> batch) {
+        int size = batch.size();
+        repository.saveAll(batch);
+        rollupRepository.add(batch);
+        sketchRepository.add(batch);
+        entityManager.flush();
+        entityManager.clear();
+        batch.clear();
+        return size;
+    }
+
+    private void validate(EndpointHitDto dto) {
+        Set<ConstraintViolation<EndpointHitDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining("; ")));
+        }
+    }
 }
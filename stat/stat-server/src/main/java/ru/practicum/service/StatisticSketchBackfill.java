@@ -0,0 +1,105 @@
+package ru.practicum.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.model.Statistic;
+import ru.practicum.repository.StatisticSketchRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatisticSketchBackfill {
+    private static final int CHUNK_SIZE = 10_000;
+    private static final String NAME = "hll";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatisticSketchRepository sketchRepository;
+    private final PlatformTransactionManager transactionManager;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // отметка ставится до запуска веб-сервера: все просмотры, принятые позже, попадают в оценки при сохранении,
+    // а построение по истории идет строго ниже этой границы
+    @PostConstruct
+    public void mark() {
+        jdbcTemplate.update("INSERT INTO statistic_backfill (name, watermark) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                NAME, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Progress progress = jdbcTemplate.queryForObject(
+                "SELECT watermark, position, completed FROM statistic_backfill WHERE name = ?",
+                (rs, rowNum) -> new Progress(rs.getTimestamp("watermark").toLocalDateTime(),
+                        rs.getTimestamp("position") != null ? rs.getTimestamp("position").toLocalDateTime() : null,
+                        rs.getBoolean("completed")),
+                NAME);
+        if (progress.completed()) {
+            return;
+        }
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        builder.name("stat-hll-backfill").start(() -> run(progress));
+    }
+
+    private void run(Progress progress) {
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(CHUNK_SIZE);
+
+        // после перезапуска продолжаем с последнего сохраненного момента: повторное добавление тех же ip оценку не меняет
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(progress.watermark())));
+        String sql = "SELECT app_name, uri, ip, request_date FROM statistic WHERE request_date < ?";
+        if (progress.position() != null) {
+            sql += " AND request_date >= ?";
+            args.add(Timestamp.valueOf(progress.position()));
+        }
+        String query = sql + " ORDER BY request_date";
+
+        List<Statistic> chunk = new ArrayList<>(CHUNK_SIZE);
+        long[] total = {0};
+        read.executeWithoutResult(status -> {
+            streaming.query(query, rs -> {
+                chunk.add(new Statistic(null, rs.getString("app_name"), rs.getString("uri"), rs.getString("ip"),
+                        rs.getTimestamp("request_date").toLocalDateTime()));
+                if (chunk.size() == CHUNK_SIZE) {
+                    write.executeWithoutResult(s -> save(chunk));
+                    total[0] += chunk.size();
+                    chunk.clear();
+                }
+            }, args.toArray());
+        });
+        if (!chunk.isEmpty()) {
+            write.executeWithoutResult(s -> save(chunk));
+            total[0] += chunk.size();
+        }
+        jdbcTemplate.update("UPDATE statistic_backfill SET position = watermark, completed = TRUE WHERE name = ?", NAME);
+        log.info("Построены HyperLogLog-оценки для {} сохраненных просмотров до {}", total[0], progress.watermark());
+    }
+
+    private void save(List<Statistic> chunk) {
+        sketchRepository.add(chunk);
+        jdbcTemplate.update("UPDATE statistic_backfill SET position = ? WHERE name = ?",
+                Timestamp.valueOf(chunk.get(chunk.size() - 1).getRequestDate()), NAME);
+    }
+
+    private record Progress(LocalDateTime watermark, LocalDateTime position, boolean completed) {
+    }
+}
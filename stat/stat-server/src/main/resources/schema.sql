@@ -1,8 +1,122 @@
+CREATE SEQUENCE IF NOT EXISTS statistic_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS statistic (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL DEFAULT nextval('statistic_seq'),
   app_name VARCHAR(255) NOT NULL,
   uri VARCHAR(512) NOT NULL,
   ip VARCHAR(45) NOT NULL,
-  request_date TIMESTAMP WITHOUT TIME ZONE,
-  CONSTRAINT pk_statistic PRIMARY KEY (id)
-);
\ No newline at end of file
+  request_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_statistic PRIMARY KEY (id, request_date)
+) PARTITION BY RANGE (request_date);
+
+CREATE INDEX IF NOT EXISTS idx_statistic_uri_date ON statistic (uri, request_date) INCLUDE (app_name, ip);
+
+CREATE INDEX IF NOT EXISTS idx_statistic_date ON statistic (request_date) INCLUDE (app_name, uri, ip);
+
+SELECT setval('statistic_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM statistic) + 1, (SELECT last_value FROM statistic_seq)));
+
+
+CREATE TABLE IF NOT EXISTS statistic_rollup (
+  granularity VARCHAR(6) NOT NULL,
+  bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  app_name VARCHAR(255) NOT NULL,
+  uri VARCHAR(512) NOT NULL,
+  hits BIGINT NOT NULL,
+  CONSTRAINT pk_statistic_rollup PRIMARY KEY (granularity, uri, bucket_start, app_name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_statistic_rollup_bucket ON statistic_rollup (granularity, bucket_start) INCLUDE (app_name, uri, hits);
+
+CREATE TABLE IF NOT EXISTS statistic_daily_ip (
+  bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  app_name VARCHAR(255) NOT NULL,
+  uri VARCHAR(512) NOT NULL,
+  ip VARCHAR(45) NOT NULL,
+  CONSTRAINT pk_statistic_daily_ip PRIMARY KEY (uri, bucket_start, app_name, ip)
+);
+
+CREATE INDEX IF NOT EXISTS idx_statistic_daily_ip_bucket ON statistic_daily_ip (bucket_start) INCLUDE (app_name, uri, ip);
+
+INSERT INTO statistic_rollup (granularity, bucket_start, app_name, uri, hits)
+SELECT g.granularity, date_trunc(g.unit, s.request_date), s.app_name, s.uri, COUNT(*)
+FROM statistic AS s
+CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+WHERE s.request_date IS NOT NULL
+AND NOT EXISTS (SELECT 1 FROM statistic_rollup)
+GROUP BY g.granularity, date_trunc(g.unit, s.request_date), s.app_name, s.uri;
+
+INSERT INTO statistic_daily_ip (bucket_start, app_name, uri, ip)
+SELECT DISTINCT date_trunc('day', s.request_date), s.app_name, s.uri, s.ip
+FROM statistic AS s
+WHERE s.request_date IS NOT NULL
+AND NOT EXISTS (SELECT 1 FROM statistic_daily_ip);
+
+
+CREATE TABLE IF NOT EXISTS statistic_hll (
+  granularity VARCHAR(6) NOT NULL,
+  bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  app_name VARCHAR(255) NOT NULL,
+  uri VARCHAR(512) NOT NULL,
+  registers BYTEA NOT NULL,
+  CONSTRAINT pk_statistic_hll PRIMARY KEY (granularity, uri, bucket_start, app_name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_statistic_hll_bucket ON statistic_hll (granularity, bucket_start);
+
+-- формат регистров совпадает с HyperLogLog.toBytes(): 4096 байт или по 3 байта на ненулевой регистр;
+-- || ''::BYTEA разворачивает TOAST один раз, иначе каждый get_byte заново читает значение
+CREATE OR REPLACE FUNCTION hll_registers(sketch BYTEA) RETURNS TABLE (idx INTEGER, rank INTEGER)
+LANGUAGE sql IMMUTABLE STRICT AS $$
+SELECT r.idx, r.rank
+FROM (SELECT sketch || ''::BYTEA AS registers OFFSET 0) AS v
+CROSS JOIN LATERAL (
+  SELECT i AS idx, get_byte(v.registers, i) AS rank
+  FROM generate_series(0, 4095) AS i
+  WHERE length(v.registers) = 4096
+  UNION ALL
+  SELECT get_byte(v.registers, 3 * k) << 8 | get_byte(v.registers, 3 * k + 1), get_byte(v.registers, 3 * k + 2)
+  FROM generate_series(0, length(v.registers) / 3 - 1) AS k
+  WHERE length(v.registers) <> 4096
+) AS r
+WHERE r.rank > 0
+$$;
+
+CREATE OR REPLACE FUNCTION hll_merge(stored BYTEA, added BYTEA) RETURNS BYTEA
+LANGUAGE sql IMMUTABLE STRICT AS $$
+SELECT CASE
+  WHEN length(v.base) = 4096 AND length(v.delta) = 4096 THEN
+    (SELECT string_agg(set_byte('\x00'::BYTEA, 0, GREATEST(get_byte(v.base, i), get_byte(v.delta, i))), ''::BYTEA ORDER BY i)
+     FROM generate_series(0, 4095) AS i)
+  WHEN length(v.base) = 4096 THEN
+    (SELECT COALESCE(string_agg(substring(v.base FROM e.previous + 2 FOR e.idx - e.previous - 1)
+                                || set_byte('\x00'::BYTEA, 0, GREATEST(get_byte(v.base, e.idx), e.rank)), ''::BYTEA ORDER BY e.idx)
+                     || substring(v.base FROM MAX(e.idx) + 2), v.base)
+     FROM (SELECT r.idx, r.rank, COALESCE(lag(r.idx) OVER (ORDER BY r.idx), -1) AS previous
+           FROM hll_registers(v.delta) AS r) AS e)
+  ELSE
+    (WITH merged AS (
+       SELECT r.idx, MAX(r.rank) AS rank
+       FROM (SELECT * FROM hll_registers(v.base) UNION ALL SELECT * FROM hll_registers(v.delta)) AS r
+       GROUP BY r.idx
+     )
+     SELECT CASE
+       WHEN (SELECT COUNT(*) FROM merged) * 3 < 4096 THEN
+         (SELECT COALESCE(string_agg(int2send(m.idx::SMALLINT) || set_byte('\x00'::BYTEA, 0, m.rank), ''::BYTEA ORDER BY m.idx), ''::BYTEA)
+          FROM merged AS m)
+       ELSE
+         (SELECT string_agg(set_byte('\x00'::BYTEA, 0, COALESCE(m.rank, 0)), ''::BYTEA ORDER BY i)
+          FROM generate_series(0, 4095) AS i LEFT JOIN merged AS m ON m.idx = i)
+     END)
+END
+FROM (SELECT CASE WHEN length(added) = 4096 THEN added ELSE stored END || ''::BYTEA AS base,
+             CASE WHEN length(added) = 4096 THEN stored ELSE added END || ''::BYTEA AS delta
+      OFFSET 0) AS v
+$$;
+
+CREATE TABLE IF NOT EXISTS statistic_backfill (
+  name VARCHAR(32) NOT NULL,
+  watermark TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  position TIMESTAMP WITHOUT TIME ZONE,
+  completed BOOLEAN NOT NULL DEFAULT FALSE,
+  CONSTRAINT pk_statistic_backfill PRIMARY KEY (name)
+);
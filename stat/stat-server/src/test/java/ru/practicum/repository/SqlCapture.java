@@ -0,0 +1,17 @@
+package ru.practicum.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SqlCapture implements StatementInspector {
+    private static volatile String last;
+
+    public static String last() {
+        return last;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        last = sql;
+        return sql;
+    }
+}
@@ -0,0 +1,174 @@
+package ru.practicum.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.dto.ViewStats;
+import ru.practicum.service.StatisticService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockingDetails;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.repository.SqlCapture")
+class StatisticRepositoryPlanTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    private static final LocalDateTime END = LocalDateTime.now();
+    private static final LocalDateTime START = END.minusHours(6);
+    private static final LocalDateTime ROLLUP_START = END.minusDays(3);
+    private static final List<String> URIS = List.of("/events/1", "/events/2");
+    private static final String INDEX_ACCESS = "(Index (Only )?Scan using \\S+|Bitmap Heap Scan) on ";
+
+    @Autowired
+    private StatisticRepository repository;
+
+    @Autowired
+    private StatisticRollupRepository rollupRepository;
+
+    @Autowired
+    private StatisticSketchRepository sketchRepository;
+
+    @Autowired
+    private StatisticService statisticService;
+
+    @SpyBean
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        // 30 дней просмотров по 1000 uri: окно в 6 часов и два uri выбирают доли процента строк
+        jdbcTemplate.update("""
+                INSERT INTO statistic (app_name, uri, ip, request_date)
+                SELECT 'main-service', '/events/' || g % 1000, '10.0.' || g / 256 % 256 || '.' || g % 256,
+                       localtimestamp - g * interval '8.64 second'
+                FROM generate_series(1, 300000) AS g
+                """);
+        // агрегаты строятся из тех же просмотров, как при первом запуске на существующей таблице;
+        // для плана важны только размеры, поэтому в каждой оценке один регистр
+        jdbcTemplate.update("""
+                INSERT INTO statistic_rollup (granularity, bucket_start, app_name, uri, hits)
+                SELECT g.granularity, date_trunc(g.unit, s.request_date), s.app_name, s.uri, COUNT(*)
+                FROM statistic AS s
+                CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+                GROUP BY g.granularity, date_trunc(g.unit, s.request_date), s.app_name, s.uri
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO statistic_daily_ip (bucket_start, app_name, uri, ip)
+                SELECT DISTINCT date_trunc('day', request_date), app_name, uri, ip FROM statistic
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO statistic_hll (granularity, bucket_start, app_name, uri, registers)
+                SELECT granularity, bucket_start, app_name, uri, decode('000101', 'hex')
+                FROM statistic_rollup WHERE granularity IN ('HOUR', 'DAY')
+                """);
+        jdbcTemplate.execute("VACUUM ANALYZE statistic, statistic_rollup, statistic_daily_ip, statistic_hll");
+    }
+
+    @Test
+    void findUniqueIpAndUrisInUsesIndex() {
+        repository.findUniqueIpAndUrisIn(START, END, URIS);
+        assertIndexScan(START, END, URIS.get(0), URIS.get(1));
+    }
+
+    @Test
+    void findUniqueIpUsesIndex() {
+        repository.findUniqueIp(START, END);
+        assertIndexScan(START, END);
+    }
+
+    @Test
+    void findNotUniqueIpAndUrisInUsesIndex() {
+        repository.findNotUniqueIpAndUrisIn(START, END, URIS);
+        assertIndexScan(START, END, URIS.get(0), URIS.get(1));
+    }
+
+    @Test
+    void findNotUniqueIpUsesIndex() {
+        repository.findNotUniqueIp(START, END);
+        assertIndexScan(START, END);
+    }
+
+    @Test
+    void emptyUrisMeansNoFilter() {
+        List<ViewStats> all = rollupRepository.findHits(START, END, null);
+
+        assertThat(rollupRepository.findHits(START, END, List.of()))
+                .usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(all);
+        assertThat(statisticService.getStatistics(START, END, List.of(), false))
+                .usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(all);
+    }
+
+    // Трое суток раскладываются на сырые края и минутные, часовые и дневные корзины:
+    // каждая часть запроса должна идти по индексу
+    @Test
+    void rollupFindHitsUsesIndexes() {
+        assertJdbcIndexScans(() -> rollupRepository.findHits(ROLLUP_START, END, null), "statistic_rollup");
+        assertJdbcIndexScans(() -> rollupRepository.findHits(ROLLUP_START, END, URIS), "statistic_rollup");
+    }
+
+    @Test
+    void rollupFindUniqueIpUsesIndexes() {
+        assertJdbcIndexScans(() -> rollupRepository.findUniqueIp(ROLLUP_START, END, null), "statistic_daily_ip");
+        assertJdbcIndexScans(() -> rollupRepository.findUniqueIp(ROLLUP_START, END, URIS), "statistic_daily_ip");
+    }
+
+    @Test
+    void sketchFindApproxUniqueIpUsesIndexes() {
+        assertJdbcIndexScans(() -> sketchRepository.findApproxUniqueIp(ROLLUP_START, END, null), "statistic_hll");
+        assertJdbcIndexScans(() -> sketchRepository.findApproxUniqueIp(ROLLUP_START, END, URIS), "statistic_hll");
+    }
+
+    private void assertJdbcIndexScans(Runnable call, String aggregate) {
+        clearInvocations(namedJdbcTemplate);
+        call.run();
+        List<Invocation> queries = mockingDetails(namedJdbcTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("query"))
+                .toList();
+        assertThat(queries).isNotEmpty();
+
+        List<String> plans = new ArrayList<>();
+        for (Invocation query : queries) {
+            plans.addAll(namedJdbcTemplate.query("EXPLAIN " + query.getArgument(0, String.class),
+                    query.getArgument(1, SqlParameterSource.class), (rs, rowNum) -> rs.getString(1)));
+        }
+
+        String text = String.join("\n", plans);
+        assertThat(text).as(text).doesNotContain("Seq Scan");
+        assertThat(text).as(text).containsPattern(INDEX_ACCESS + "statistic_(p\\d+|default)");
+        assertThat(text).as(text).containsPattern(INDEX_ACCESS + aggregate + "\\b");
+    }
+
+    private void assertIndexScan(Object... parameters) {
+        String sql = SqlCapture.last();
+        List<String> plan = new ArrayList<>();
+        jdbcTemplate.query("EXPLAIN " + sql, rs -> {
+            plan.add(rs.getString(1));
+        }, parameters);
+
+        String text = String.join("\n", plan);
+        assertThat(text).as(text).doesNotContain("Seq Scan");
+        assertThat(text).as(text).containsPattern("Index (Only )?Scan using \\S+ on statistic_");
+    }
+}